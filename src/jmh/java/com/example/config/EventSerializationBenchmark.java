@@ -0,0 +1,102 @@
+package com.example.config;
+
+import com.example.dto.OrderCreatedEvent;
+import com.example.dto.StockReleasedEvent;
+import com.example.kafka.codec.JsonEventCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kafka (de)serialization on the order and inventory event paths.
+ * Run with -prof gc to see allocation per operation alongside the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventSerializationBenchmark {
+
+    private static final String TOPIC = "order-events";
+
+    private ObjectMapper objectMapper;
+    private EventCodecSerializer serializer;
+    private InventoryEventDeserializer inventoryDeserializer;
+
+    private OrderCreatedEvent orderCreated;
+    private byte[] stockReleased;
+
+    @Setup
+    public void setUp() {
+        // Same configuration as KafkaProducerConfig.objectMapper()
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        serializer = new EventCodecSerializer(new JsonEventCodec(objectMapper));
+        inventoryDeserializer = new InventoryEventDeserializer(objectMapper);
+
+        List<OrderCreatedEvent.OrderItemDto> items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            items.add(OrderCreatedEvent.OrderItemDto.builder()
+                    .productId(1000L + i)
+                    .productName("Product " + i)
+                    .productSku("SKU-" + (1000 + i))
+                    .quantity(2)
+                    .price(new BigDecimal("19.99"))
+                    .build());
+        }
+        orderCreated = OrderCreatedEvent.builder()
+                .orderId(123_456L)
+                .userId(42L)
+                .items(items)
+                .totalAmount(new BigDecimal("199.90"))
+                .shippingAddress("123 Main St, City, State 12345")
+                .createdAt(LocalDateTime.of(2026, 1, 29, 10, 30))
+                .eventType("ORDER_CREATED")
+                .build();
+
+        stockReleased = ("{\"orderId\": 123456, \"userId\": 42, \"reservationId\": \"RES-123456\", "
+                + "\"eventType\": \"STOCK_RELEASED\", \"releasedAt\": \"2026-01-29T10:31:00\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] serializeOrderCreated() {
+        return serializer.serialize(TOPIC, orderCreated);
+    }
+
+    /**
+     * The listener's old path: generic Map parse followed by convertValue into the DTO
+     */
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public StockReleasedEvent deserializeInventoryEventViaMap() throws IOException {
+        Map<String, Object> message = objectMapper.readValue(stockReleased, Map.class);
+        return objectMapper.convertValue(message, StockReleasedEvent.class);
+    }
+
+    /**
+     * What the inventory-events listener uses: type peek + direct binding
+     */
+    @Benchmark
+    public Object deserializeInventoryEventDirect() {
+        return inventoryDeserializer.deserialize(TOPIC, new RecordHeaders(), stockReleased);
+    }
+}
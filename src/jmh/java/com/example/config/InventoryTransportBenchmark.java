@@ -0,0 +1,95 @@
+package com.example.config;
+
+import com.example.dto.ProductAvailabilityRequest;
+import com.example.dto.ProductAvailabilityResponse;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Availability calls against a local stub of the Inventory Service, with the old bare
+ * RestTemplate ("simple": HttpURLConnection) and the pooled JDK HttpClient transport
+ * ("jdk"). 32 threads model the concurrent fan-out.
+ *
+ * Throughput gives requests per second; SampleTime gives the latency distribution
+ * including p0.99.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(32)
+public class InventoryTransportBenchmark {
+
+    private static final byte[] RESPONSE = ("{\"available\":true,\"productId\":101,\"productName\":\"Laptop\","
+            + "\"productSku\":\"SKU-101\",\"currentPrice\":999.99,\"availableQuantity\":42,\"message\":\"ok\"}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Param({"simple", "jdk"})
+    public String transport;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private RestTemplate restTemplate;
+    private String url;
+    private ProductAvailabilityRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        serverExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.createContext("/api/v1/inventory/check-availability", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, RESPONSE.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(RESPONSE);
+            }
+        });
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/v1/inventory/check-availability";
+        request = ProductAvailabilityRequest.builder().productId(101L).quantity(1).build();
+
+        restTemplate = switch (transport) {
+            case "simple" -> new RestTemplate();
+            case "jdk" -> RestClientConfig.restTemplate(
+                    RestClientConfig.httpClient(HttpClient.Version.HTTP_2, Duration.ofSeconds(1)),
+                    Duration.ofSeconds(2),
+                    new HostConnectionLimiter("inventory", 64, 1000, new SimpleMeterRegistry()));
+            default -> throw new IllegalArgumentException(transport);
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.close();
+    }
+
+    @Benchmark
+    public ProductAvailabilityResponse checkAvailability() {
+        return restTemplate.postForObject(url, request, ProductAvailabilityResponse.class);
+    }
+}
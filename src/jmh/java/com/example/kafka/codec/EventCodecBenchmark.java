@@ -0,0 +1,119 @@
+package com.example.kafka.codec;
+
+import com.example.dto.OrderCreatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode/decode cost per OrderCreated event for each codec.
+ *
+ * Bytes per event are printed once per trial: raw, and gzip-compressed over a batch of
+ * 100 events as a stand-in for producer batch compression (field names repeat from
+ * record to record, so JSON gains far more from it than the binary format does).
+ * Run with -prof gc to see allocation per operation alongside the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventCodecBenchmark {
+
+    private static final int BATCH = 100;
+
+    @Param({"json", "binary"})
+    private String codecName;
+
+    @Param({"1", "5", "20"})
+    private int itemCount;
+
+    private EventCodec codec;
+    private OrderCreatedEvent event;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        codec = switch (codecName) {
+            case "json" -> new JsonEventCodec(objectMapper).register(OrderCreatedEvent.class, "ORDER_CREATED");
+            case "binary" -> new BinaryEventCodec();
+            default -> throw new IllegalArgumentException(codecName);
+        };
+        event = orderCreated(itemCount);
+        encoded = codec.encode(event);
+
+        System.out.printf("%n%s, %d items: %d B/event raw, %d B/event in a gzip batch of %d%n",
+                codecName, itemCount, encoded.length, gzipBatch() / BATCH, BATCH);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return codec.encode(event);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return codec.decode(encoded, "ORDER_CREATED");
+    }
+
+    /**
+     * Compressed size of a batch of distinct orders
+     */
+    private int gzipBatch() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            for (int i = 0; i < BATCH; i++) {
+                OrderCreatedEvent order = orderCreated(itemCount);
+                order.setOrderId(order.getOrderId() + i);
+                order.setUserId(order.getUserId() + i % 17);
+                gzip.write(codec.encode(order));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.size();
+    }
+
+    private static OrderCreatedEvent orderCreated(int itemCount) {
+        List<OrderCreatedEvent.OrderItemDto> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(OrderCreatedEvent.OrderItemDto.builder()
+                    .productId(1000L + i)
+                    .productName("Product " + i)
+                    .productSku("SKU-" + (1000 + i))
+                    .quantity(2)
+                    .price(new BigDecimal("19.99"))
+                    .build());
+        }
+        return OrderCreatedEvent.builder()
+                .orderId(123_456L)
+                .userId(42L)
+                .items(items)
+                .totalAmount(new BigDecimal("19.99").multiply(BigDecimal.valueOf(2L * itemCount)))
+                .shippingAddress("123 Main St, City, State 12345")
+                .createdAt(LocalDateTime.of(2026, 1, 29, 10, 30))
+                .eventType("ORDER_CREATED")
+                .build();
+    }
+}
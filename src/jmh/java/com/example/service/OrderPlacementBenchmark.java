@@ -0,0 +1,79 @@
+package com.example.service;
+
+import com.example.dto.CreateOrderRequest;
+import com.example.dto.OrderCreatedEvent;
+import com.example.dto.OrderItemRequest;
+import com.example.dto.ProductAvailabilityResponse;
+import com.example.entities.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CPU-side of placeOrder: building the Order/OrderItem graph with BigDecimal
+ * totals, and turning the saved order into its OrderCreatedEvent.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderPlacementBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int itemCount;
+
+    private CreateOrderRequest request;
+    private List<ProductAvailabilityResponse> availability;
+    private Order savedOrder;
+
+    @Setup
+    public void setUp() {
+        List<OrderItemRequest> items = new ArrayList<>(itemCount);
+        availability = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            long productId = 1000L + i;
+            items.add(OrderItemRequest.builder()
+                    .productId(productId)
+                    .quantity(1 + i % 5)
+                    .build());
+            availability.add(ProductAvailabilityResponse.builder()
+                    .available(true)
+                    .productId(productId)
+                    .productName("Product " + productId)
+                    .productSku("SKU-" + productId)
+                    .currentPrice(new BigDecimal("19.99").add(BigDecimal.valueOf(i)))
+                    .availableQuantity(100)
+                    .build());
+        }
+        request = CreateOrderRequest.builder()
+                .userId(1L)
+                .items(items)
+                .shippingAddress("123 Main St, City, State 12345")
+                .build();
+
+        // What the repository hands back after save: IDs and timestamps populated
+        savedOrder = OrderService.buildOrder(request, availability);
+        savedOrder.setOrderId(123_456L);
+        savedOrder.setCreatedAt(LocalDateTime.of(2026, 1, 29, 10, 30));
+    }
+
+    @Benchmark
+    public Order buildOrder() {
+        return OrderService.buildOrder(request, availability);
+    }
+
+    @Benchmark
+    public OrderCreatedEvent buildOrderCreatedEvent() {
+        return OrderService.buildOrderCreatedEvent(savedOrder);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.Controller;
+
+import com.example.dto.DeadLetterReplayResponse;
+import com.example.kafka.DeadLetterReplayer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+public class AdminController {
+
+    private final DeadLetterReplayer deadLetterReplayer;
+
+    public AdminController(DeadLetterReplayer deadLetterReplayer) {
+        this.deadLetterReplayer = deadLetterReplayer;
+    }
+
+    /**
+     * Send dead-lettered inventory events back to inventory-events for another round of processing
+     */
+    @PostMapping("/dlt/inventory-events/replay")
+    public ResponseEntity<DeadLetterReplayResponse> replayInventoryEvents(
+            @RequestParam(value = "limit", defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(deadLetterReplayer.replay(limit));
+    }
+}
@@ -1,40 +1,142 @@
 package com.example.Controller;
 
+import com.example.dto.BatchCreateOrderRequest;
+import com.example.dto.BatchCreateOrderResponse;
 import com.example.dto.CreateOrderRequest;
+import com.example.dto.CursorPage;
+import com.example.dto.OrderCursor;
+import com.example.dto.OrderIntakeResponse;
+import com.example.dto.OrderResponse;
 import com.example.entities.Order;
+import com.example.entities.OrderIntake;
+import com.example.entities.OrderSummary;
+import com.example.exception.OrderIntakeRejectedException;
+import com.example.service.IdempotencyStore;
+import com.example.service.OrderIntakeService;
 import com.example.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/orders")
 @Slf4j
 public class OrderController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final String RESPOND_ASYNC = "respond-async";
+
     private final OrderService orderService;
+    private final IdempotencyStore idempotencyStore;
+    private final OrderIntakeService orderIntakeService;
+    private final ObjectMapper objectMapper;
+    private final boolean asyncIntakeEnabled;
+    private final long retryAfterSeconds;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(
+            OrderService orderService,
+            IdempotencyStore idempotencyStore,
+            OrderIntakeService orderIntakeService,
+            ObjectMapper objectMapper,
+            @Value("${orders.intake.async-enabled:true}") boolean asyncIntakeEnabled,
+            @Value("${orders.intake.retry-after-seconds:2}") long retryAfterSeconds) {
         this.orderService = orderService;
+        this.idempotencyStore = idempotencyStore;
+        this.orderIntakeService = orderIntakeService;
+        this.objectMapper = objectMapper;
+        this.asyncIntakeEnabled = asyncIntakeEnabled;
+        this.retryAfterSeconds = retryAfterSeconds;
     }
 
     /**
      * Place a new order
+     *
+     * With an Idempotency-Key header, retries of the same request return the
+     * original order instead of placing a new one.
+     *
+     * With "Prefer: respond-async" the order is only accepted here (202 + status URL)
+     * and placed by the intake workers; 429 when the intake queue is full. A retry with
+     * the same Idempotency-Key gets the original intake back.
      */
     @PostMapping
-    public ResponseEntity<Order> placeOrder(@Valid @RequestBody CreateOrderRequest request) {
+    public ResponseEntity<?> placeOrder(
+            @Valid @RequestBody CreateOrderRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestHeader(value = "Prefer", required = false) String prefer) {
         log.info("Received request to place order for user: {}", request.getUserId());
-        Order order = orderService.placeOrder(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(order);
+
+        // Keys are scoped per user so one client can't replay another's order
+        String scopedKey = idempotencyKey == null || idempotencyKey.isBlank()
+                ? null
+                : request.getUserId() + ":" + idempotencyKey;
+
+        if (asyncIntakeEnabled && prefer != null && prefer.contains(RESPOND_ASYNC)) {
+            OrderIntakeService.Accepted accepted = orderIntakeService.accept(request, scopedKey);
+            OrderIntakeResponse intake = toIntakeResponse(accepted.intake());
+            return ResponseEntity.accepted()
+                    .location(URI.create(intake.getStatusUrl()))
+                    .header("Preference-Applied", RESPOND_ASYNC)
+                    .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(accepted.replayed()))
+                    .body(intake);
+        }
+
+        if (scopedKey == null) {
+            Order order = orderService.placeOrder(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(OrderResponse.from(order));
+        }
+
+        IdempotencyStore.Outcome outcome = idempotencyStore.execute(
+                scopedKey,
+                request,
+                inTransaction -> orderService.placeOrder(request, inTransaction));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(outcome.replayed()))
+                .body(OrderResponse.from(outcome.order()));
+    }
+
+    /**
+     * Place many orders in one request
+     *
+     * Each order succeeds or fails on its own; the response has one result per order.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchCreateOrderResponse> placeOrders(@Valid @RequestBody BatchCreateOrderRequest request) {
+        log.info("Received batch of {} orders", request.getOrders().size());
+        return ResponseEntity.ok(orderService.placeOrders(request.getOrders()));
+    }
+
+    /**
+     * Get the status of an asynchronously accepted order
+     */
+    @GetMapping("/intake/{intakeId}")
+    public ResponseEntity<OrderIntakeResponse> getIntake(@PathVariable("intakeId") String intakeId) {
+        return orderIntakeService.getIntake(intakeId)
+                .map(this::toIntakeResponse)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     /**
      * Get order by ID
      */
     @GetMapping("/{orderId}")
-    public ResponseEntity<Order> getOrder(@PathVariable("orderId") Long orderId) {
+    public ResponseEntity<OrderResponse> getOrder(@PathVariable("orderId") Long orderId) {
         log.info("Fetching order: {}", orderId);
         return orderService.getOrder(orderId)
                 .map(ResponseEntity::ok)
@@ -42,32 +144,102 @@ public class OrderController {
     }
 
     /**
-     * Get all orders for a user
+     * Get orders for a user, newest first, one page at a time
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<Iterable<Order>> getUserOrders(@PathVariable("userId") Long userId) {
+    public ResponseEntity<CursorPage<OrderResponse>> getUserOrders(
+            @PathVariable("userId") Long userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
         log.info("Fetching orders for user: {}", userId);
-        Iterable<Order> orders = orderService.getOrdersByUserId(userId);
+        CursorPage<OrderResponse> orders = orderService.getOrdersByUserId(userId, parseCursor(cursor), limit);
         return ResponseEntity.ok(orders);
     }
 
     /**
-     * Get all orders (admin)
+     * Get a user's order history (ID, status, total, item count), newest first
+     */
+    @GetMapping("/user/{userId}/summary")
+    public ResponseEntity<CursorPage<OrderSummary>> getUserOrderSummaries(
+            @PathVariable("userId") Long userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        log.info("Fetching order summaries for user: {}", userId);
+        return ResponseEntity.ok(orderService.getOrderSummaries(userId, parseCursor(cursor), limit));
+    }
+
+    /**
+     * Get all orders, newest first, one page at a time (admin)
      */
     @GetMapping
-    public ResponseEntity<Iterable<Order>> getAllOrders() {
+    public ResponseEntity<CursorPage<OrderResponse>> getAllOrders(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
         log.info("Fetching all orders");
-        Iterable<Order> orders = orderService.getAllOrders();
+        CursorPage<OrderResponse> orders = orderService.getAllOrders(parseCursor(cursor), limit);
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * Export all orders as NDJSON, one order per line (admin)
+     */
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportOrders() {
+        log.info("Exporting all orders");
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = objectMapper.writer()
+                    .withRootValueSeparator("\n")
+                    .writeValues(out)) {
+                orderService.exportAllOrders(order -> {
+                    try {
+                        writer.write(OrderResponse.from(order));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+
     /**
      * Cancel order
      */
     @PostMapping("/{orderId}/cancel")
-    public ResponseEntity<Order> cancelOrder(@PathVariable("orderId") Long orderId) {
+    public ResponseEntity<OrderResponse> cancelOrder(@PathVariable("orderId") Long orderId) {
         log.info("Cancelling order: {}", orderId);
         Order order = orderService.cancelOrder(orderId);
-        return ResponseEntity.ok(order);
+        return ResponseEntity.ok(OrderResponse.from(order));
+    }
+
+    @ExceptionHandler(OrderIntakeRejectedException.class)
+    public ResponseEntity<Map<String, String>> handleIntakeRejected(OrderIntakeRejectedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(Map.of("message", e.getMessage()));
+    }
+
+    private OrderIntakeResponse toIntakeResponse(OrderIntake intake) {
+        return OrderIntakeResponse.builder()
+                .intakeId(intake.getIntakeId())
+                .status(intake.getStatus())
+                .statusUrl("/api/v1/orders/intake/" + intake.getIntakeId())
+                .orderId(intake.getOrderId())
+                .failureReason(intake.getFailureReason())
+                .acceptedAt(intake.getAcceptedAt())
+                .build();
+    }
+
+    private OrderCursor parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return OrderCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,170 @@
+package com.example.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * AIMD limit on in-flight calls to one upstream.
+ *
+ * Every call that comes back fast, while the limit is at least half used, raises the limit
+ * by 1/limit (about +1 per round of calls). A failure or a call slower than the latency
+ * threshold multiplies it by the backoff ratio. Calls over the limit are refused at once,
+ * or wait for a slot up to a deadline the caller already has (one request's fan-out), so
+ * a slow upstream sheds load instead of tying up our threads.
+ *
+ * Taking and releasing slots is lock-free (the limit is a double kept in an AtomicLong);
+ * only callers that wait for a slot, and releases while someone waits, take the lock.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+    private final Counter rejectedCounter;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      double backoffRatio, long latencyThresholdNanos,
+                                      MeterRegistry meterRegistry) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(initialLimit));
+
+        Gauge.builder("concurrency.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("concurrency.limiter.in.flight", inFlight, AtomicInteger::get)
+                .description("Calls currently in flight")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("concurrency.limiter.rejected")
+                .description("Calls refused because the limit was reached")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Take a slot without waiting; false when the limit is reached
+     */
+    public boolean tryAcquire() {
+        if (take()) {
+            return true;
+        }
+        rejectedCounter.increment();
+        return false;
+    }
+
+    /**
+     * Take a slot, waiting up to the timeout for one to be released; false if none was
+     */
+    public boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        if (take()) {
+            return true;
+        }
+        long remaining = unit.toNanos(timeout);
+        lock.lock();
+        // Counted before the re-check, so a release after it is sure to signal
+        waiting.incrementAndGet();
+        try {
+            while (!take()) {
+                if (remaining <= 0) {
+                    rejectedCounter.increment();
+                    return false;
+                }
+                remaining = released.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            waiting.decrementAndGet();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The call completed; a slow completion counts as congestion
+     */
+    public void onSuccess(long latencyNanos) {
+        int wasInFlight = release();
+        if (latencyNanos > latencyThresholdNanos) {
+            adjust(limit -> Math.max(minLimit, limit * backoffRatio));
+        } else if (wasInFlight * 2 >= getLimit()) {
+            // Only grow while the limit is actually in use, or it drifts up during quiet periods
+            adjust(limit -> Math.min(maxLimit, limit + 1.0 / limit));
+        }
+    }
+
+    /**
+     * The call failed or timed out
+     */
+    public void onDropped() {
+        release();
+        adjust(limit -> Math.max(minLimit, limit * backoffRatio));
+    }
+
+    /**
+     * The call ended in a way that says nothing about upstream load (e.g. a 4xx)
+     */
+    public void onIgnored() {
+        release();
+    }
+
+    public double getLimit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private boolean take() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return the number in flight before this release
+     */
+    private int release() {
+        int wasInFlight = inFlight.getAndDecrement();
+        if (waiting.get() > 0) {
+            lock.lock();
+            try {
+                // All of them: the limit may have grown or shrunk since they went to sleep
+                released.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+        return wasInFlight;
+    }
+
+    private void adjust(DoubleUnaryOperator update) {
+        limitBits.updateAndGet(bits ->
+                Double.doubleToRawLongBits(update.applyAsDouble(Double.longBitsToDouble(bits))));
+    }
+}
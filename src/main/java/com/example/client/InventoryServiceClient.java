@@ -1,31 +1,92 @@
 package com.example.client;
 
+import com.example.config.OrderMetrics;
+import com.example.config.OrderMetrics.InventoryCall;
+import com.example.config.OrderMetrics.Outcome;
+import com.example.dto.OrderItemRequest;
 import com.example.dto.ProductAvailabilityRequest;
 import com.example.dto.ProductAvailabilityResponse;
+import com.example.exception.InventoryCallRejectedException;
 import com.example.exception.InventoryServiceException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
 @Component
 @Slf4j
 public class InventoryServiceClient {
 
     private final RestTemplate restTemplate;
+    private final ProductSnapshotCache productCache;
+    private final ExecutorService inventoryExecutor;
+    private final OrderMetrics orderMetrics;
+    private final CircuitBreaker circuitBreaker;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
     private final String inventoryServiceUrl;
+    private final long availabilityTimeoutMs;
+
+    // Flipped off the first time the inventory service tells us it has no bulk endpoint,
+    // so we don't pay a failed round trip on every order afterwards
+    private volatile boolean bulkEnabled;
 
     public InventoryServiceClient(
-            RestTemplate restTemplate,
-            @Value("${inventory.service.url:http://localhost:8082}") String inventoryServiceUrl) {
+            @Qualifier("inventoryRestTemplate") RestTemplate restTemplate,
+            ProductSnapshotCache productCache,
+            @Qualifier("inventoryExecutor") ExecutorService inventoryExecutor,
+            OrderMetrics orderMetrics,
+            @Qualifier("inventoryCircuitBreaker") CircuitBreaker circuitBreaker,
+            @Qualifier("inventoryConcurrencyLimiter") AdaptiveConcurrencyLimiter concurrencyLimiter,
+            @Value("${inventory.service.url:http://localhost:8082}") String inventoryServiceUrl,
+            @Value("${inventory.availability.bulk-enabled:true}") boolean bulkEnabled,
+            @Value("${inventory.availability.timeout-ms:3000}") long availabilityTimeoutMs) {
         this.restTemplate = restTemplate;
+        this.productCache = productCache;
+        this.inventoryExecutor = inventoryExecutor;
+        this.orderMetrics = orderMetrics;
+        this.circuitBreaker = circuitBreaker;
+        this.concurrencyLimiter = concurrencyLimiter;
         this.inventoryServiceUrl = inventoryServiceUrl;
+        this.bulkEnabled = bulkEnabled;
+        this.availabilityTimeoutMs = availabilityTimeoutMs;
     }
 
     /**
      * Check if product is available in requested quantity
      */
     public ProductAvailabilityResponse checkProductAvailability(Long productId, Integer quantity) {
+        ProductAvailabilityResponse cached = productCache.get(productId, quantity);
+        if (cached != null) {
+            log.debug("Availability for product {} served from cache", productId);
+            return cached;
+        }
+        return fetchProductAvailability(productId, quantity, 0);
+    }
+
+    /**
+     * One upstream check; waits up to limitWaitNanos for a concurrency limiter slot
+     */
+    private ProductAvailabilityResponse fetchProductAvailability(Long productId, Integer quantity,
+                                                                 long limitWaitNanos) {
+        long start = System.nanoTime();
         try {
             String url = inventoryServiceUrl + "/api/v1/inventory/check-availability";
 
@@ -36,19 +97,25 @@ public class InventoryServiceClient {
 
             log.info("Checking availability for product {} with quantity {}", productId, quantity);
 
-            ProductAvailabilityResponse response = restTemplate.postForObject(
+            ProductAvailabilityResponse response = callUpstream(() -> restTemplate.postForObject(
                     url,
                     request,
                     ProductAvailabilityResponse.class
-            );
+            ), limitWaitNanos);
 
             log.info("Availability check response: available={}, message={}",
                     response != null && response.isAvailable(),
                     response != null ? response.getMessage() : "null");
 
+            orderMetrics.recordInventoryCall(InventoryCall.SINGLE, Outcome.SUCCESS, start);
+            productCache.put(response);
             return response;
 
+        } catch (InventoryCallRejectedException e) {
+            orderMetrics.recordInventoryCall(InventoryCall.SINGLE, Outcome.REJECTED, start);
+            throw e;
         } catch (Exception e) {
+            orderMetrics.recordInventoryCall(InventoryCall.SINGLE, outcomeOf(e), start);
             log.error("Error checking product availability: {}", e.getMessage(), e);
 
             throw new InventoryServiceException(
@@ -56,4 +123,225 @@ public class InventoryServiceClient {
             );
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Check availability for a whole cart
+     *
+     * Returns one response per item, in the same order as the items.
+     * Lines covered by the product cache are answered locally; the rest go upstream.
+     * Tries the batched endpoint first (one round trip for the whole cart); if the
+     * inventory service doesn't support it, falls back to per-item calls fanned out
+     * concurrently on the inventory executor, all bounded by a single deadline.
+     */
+    public List<ProductAvailabilityResponse> checkBulkAvailability(List<OrderItemRequest> items) {
+        ProductAvailabilityResponse[] responses = new ProductAvailabilityResponse[items.size()];
+        List<OrderItemRequest> misses = new ArrayList<>(items.size());
+        List<Integer> missIndexes = new ArrayList<>(items.size());
+
+        for (int i = 0; i < items.size(); i++) {
+            OrderItemRequest item = items.get(i);
+            responses[i] = productCache.get(item.getProductId(), item.getQuantity());
+            if (responses[i] == null) {
+                misses.add(item);
+                missIndexes.add(i);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            List<ProductAvailabilityResponse> fetched = bulkEnabled ? tryBulkRequest(misses) : null;
+            if (fetched == null) {
+                fetched = checkConcurrently(misses);
+            }
+            for (int i = 0; i < fetched.size(); i++) {
+                responses[missIndexes.get(i)] = fetched.get(i);
+            }
+        }
+
+        return Arrays.asList(responses);
+    }
+
+    /**
+     * One POST for all items. Returns null when the inventory service has no bulk endpoint
+     * (404, 405 or 501) or its answer can't be paired with the items, and the caller should
+     * fall back to per-item checks. Any other error fails the check: retrying a struggling
+     * service with one call per item would only add to its load.
+     */
+    private List<ProductAvailabilityResponse> tryBulkRequest(List<OrderItemRequest> items) {
+        String url = inventoryServiceUrl + "/api/v1/inventory/check-availability/bulk";
+
+        List<ProductAvailabilityRequest> requests = new ArrayList<>(items.size());
+        for (OrderItemRequest item : items) {
+            requests.add(ProductAvailabilityRequest.builder()
+                    .productId(item.getProductId())
+                    .quantity(item.getQuantity())
+                    .build());
+        }
+
+        log.info("Checking availability for {} products in one bulk request", items.size());
+
+        long start = System.nanoTime();
+        ProductAvailabilityResponse[] responses;
+        try {
+            responses = callUpstream(() ->
+                    restTemplate.postForObject(url, requests, ProductAvailabilityResponse[].class), 0);
+        } catch (InventoryCallRejectedException e) {
+            // No point falling back to per-item calls — they'd be refused too
+            orderMetrics.recordInventoryCall(InventoryCall.BULK, Outcome.REJECTED, start);
+            throw e;
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND)
+                    || e.getStatusCode().isSameCodeAs(HttpStatus.METHOD_NOT_ALLOWED)) {
+                orderMetrics.recordInventoryCall(InventoryCall.BULK, Outcome.FALLBACK, start);
+                log.warn("Inventory service has no bulk availability endpoint ({}), using per-item checks",
+                        e.getStatusCode());
+                bulkEnabled = false;
+                return null;
+            }
+            orderMetrics.recordInventoryCall(InventoryCall.BULK, Outcome.CLIENT_ERROR, start);
+            log.error("Error checking bulk product availability: {}", e.getMessage(), e);
+            throw new InventoryServiceException("Failed to check product availability: " + e.getMessage(), e);
+        } catch (HttpServerErrorException e) {
+            if (e.getStatusCode().isSameCodeAs(HttpStatus.NOT_IMPLEMENTED)) {
+                orderMetrics.recordInventoryCall(InventoryCall.BULK, Outcome.FALLBACK, start);
+                log.warn("Inventory service has no bulk availability endpoint ({}), using per-item checks",
+                        e.getStatusCode());
+                bulkEnabled = false;
+                return null;
+            }
+            orderMetrics.recordInventoryCall(InventoryCall.BULK, Outcome.SERVER_ERROR, start);
+            log.error("Error checking bulk product availability: {}", e.getMessage(), e);
+            throw new InventoryServiceException("Failed to check product availability: " + e.getMessage(), e);
+        } catch (Exception e) {
+            orderMetrics.recordInventoryCall(InventoryCall.BULK, outcomeOf(e), start);
+            log.error("Error checking bulk product availability: {}", e.getMessage(), e);
+            throw new InventoryServiceException("Failed to check product availability: " + e.getMessage(), e);
+        }
+
+        // The bulk endpoint must answer every line, in request order — otherwise we can't
+        // pair prices with quantities safely
+        if (responses == null || responses.length != items.size()) {
+            orderMetrics.recordInventoryCall(InventoryCall.BULK, Outcome.FALLBACK, start);
+            log.warn("Bulk availability returned {} results for {} items, falling back to per-item checks",
+                    responses == null ? 0 : responses.length, items.size());
+            return null;
+        }
+        for (int i = 0; i < responses.length; i++) {
+            if (responses[i] == null || !Objects.equals(responses[i].getProductId(), items.get(i).getProductId())) {
+                orderMetrics.recordInventoryCall(InventoryCall.BULK, Outcome.FALLBACK, start);
+                log.warn("Bulk availability results are out of order at index {}, falling back to per-item checks", i);
+                return null;
+            }
+        }
+
+        orderMetrics.recordInventoryCall(InventoryCall.BULK, Outcome.SUCCESS, start);
+        for (ProductAvailabilityResponse response : responses) {
+            productCache.put(response);
+        }
+        return List.of(responses);
+    }
+
+    /**
+     * Run one HTTP call through the concurrency limiter and the circuit breaker
+     *
+     * Waits up to limitWaitNanos for a limiter slot (0: not at all), so a fan-out queues
+     * behind its own calls instead of failing; the breaker is asked only once a slot is
+     * held, so no half-open permission is spent waiting. Refused calls fail with
+     * InventoryCallRejectedException; completed calls report their latency (and any
+     * error) back to both.
+     */
+    private <T> T callUpstream(Supplier<T> call, long limitWaitNanos) {
+        if (!acquireLimiterSlot(limitWaitNanos)) {
+            throw new InventoryCallRejectedException(String.format(
+                    "Inventory Service concurrency limit reached (%d in flight)", concurrencyLimiter.getInFlight()));
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            concurrencyLimiter.onIgnored();
+            throw new InventoryCallRejectedException("Inventory Service circuit breaker is " + circuitBreaker.getState());
+        }
+
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            long elapsed = System.nanoTime() - start;
+            circuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+            concurrencyLimiter.onSuccess(elapsed);
+            return result;
+        } catch (RuntimeException e) {
+            // The breaker ignores 4xx itself; the limiter is told not to count them either
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            if (e instanceof HttpClientErrorException) {
+                concurrencyLimiter.onIgnored();
+            } else {
+                concurrencyLimiter.onDropped();
+            }
+            throw e;
+        }
+    }
+
+    private boolean acquireLimiterSlot(long waitNanos) {
+        if (waitNanos <= 0) {
+            return concurrencyLimiter.tryAcquire();
+        }
+        try {
+            return concurrencyLimiter.tryAcquire(waitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            // invokeAll cancels the calls still running at the deadline
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Outcome outcomeOf(Exception e) {
+        return switch (e) {
+            case HttpClientErrorException ignored -> Outcome.CLIENT_ERROR;
+            case HttpServerErrorException ignored -> Outcome.SERVER_ERROR;
+            case ResourceAccessException ignored -> Outcome.IO_ERROR;
+            default -> Outcome.ERROR;
+        };
+    }
+
+    /**
+     * Per-item checks fanned out on the inventory executor, one virtual thread each. The
+     * whole fan-out shares one deadline: calls over the concurrency limit wait for a slot
+     * until then, rather than failing a cart just for having more lines than the limit, and
+     * anything still running when it expires is cancelled.
+     */
+    private List<ProductAvailabilityResponse> checkConcurrently(List<OrderItemRequest> items) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(availabilityTimeoutMs);
+        List<Callable<ProductAvailabilityResponse>> calls = new ArrayList<>(items.size());
+        for (OrderItemRequest item : items) {
+            calls.add(() -> fetchProductAvailability(item.getProductId(), item.getQuantity(),
+                    Math.max(1, deadline - System.nanoTime())));
+        }
+
+        List<Future<ProductAvailabilityResponse>> futures;
+        try {
+            // invokeAll keeps futures in task order, so results line up with the cart
+            futures = inventoryExecutor.invokeAll(calls, availabilityTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InventoryServiceException("Interrupted while checking product availability", e);
+        }
+
+        List<ProductAvailabilityResponse> responses = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                responses.add(futures.get(i).get());
+            } catch (CancellationException e) {
+                throw new InventoryServiceException(String.format(
+                        "Availability check for product %d timed out after %d ms",
+                        items.get(i).getProductId(), availabilityTimeoutMs));
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof InventoryServiceException ise) {
+                    throw ise;
+                }
+                throw new InventoryServiceException(
+                        "Failed to check product availability: " + e.getCause().getMessage(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InventoryServiceException("Interrupted while checking product availability", e);
+            }
+        }
+        return responses;
+    }
+}
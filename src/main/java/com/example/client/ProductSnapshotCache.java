@@ -0,0 +1,91 @@
+package com.example.client;
+
+import com.example.dto.ProductAvailabilityResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Local snapshots of product data (name, SKU, current price) from the Inventory Service.
+ *
+ * A snapshot answers an availability check only if it showed at least the requested
+ * quantity; anything else goes upstream. Stock is still decided by the Inventory
+ * Service when it reserves on ORDER_CREATED — this only saves the pre-check round trip
+ * for hot products. Entries expire after a TTL and are dropped early when an
+ * inventory event says the product changed.
+ */
+@Component
+@Slf4j
+public class ProductSnapshotCache {
+
+    private final boolean enabled;
+    private final Cache<Long, ProductAvailabilityResponse> cache;
+
+    public ProductSnapshotCache(
+            MeterRegistry meterRegistry,
+            @Value("${inventory.cache.enabled:false}") boolean enabled,
+            @Value("${inventory.cache.max-size:10000}") long maxSize,
+            @Value("${inventory.cache.ttl-seconds:30}") long ttlSeconds) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        if (enabled) {
+            // Exposes hits, misses, evictions and size as cache.* meters tagged cache=inventory.products
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "inventory.products");
+            log.info("Product snapshot cache enabled: maxSize={}, ttl={}s", maxSize, ttlSeconds);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Cached snapshot that covers the requested quantity, or null
+     */
+    public ProductAvailabilityResponse get(Long productId, Integer quantity) {
+        if (!enabled) {
+            return null;
+        }
+        ProductAvailabilityResponse snapshot = cache.getIfPresent(productId);
+        if (snapshot == null) {
+            return null;
+        }
+        Integer availableQuantity = snapshot.getAvailableQuantity();
+        if (availableQuantity == null || availableQuantity < quantity) {
+            // Not enough headroom in the snapshot — let the Inventory Service decide
+            return null;
+        }
+        return snapshot;
+    }
+
+    public void put(ProductAvailabilityResponse response) {
+        // Only positive answers are worth keeping; a shortage must always be re-checked
+        if (enabled && response != null && response.isAvailable() && response.getProductId() != null) {
+            cache.put(response.getProductId(), response);
+        }
+    }
+
+    public void invalidate(Long productId) {
+        if (enabled && productId != null) {
+            cache.invalidate(productId);
+        }
+    }
+
+    public void invalidateAll(Collection<Long> productIds) {
+        if (enabled && !productIds.isEmpty()) {
+            cache.invalidateAll(productIds);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.config;
+
+import com.example.kafka.codec.EventCodec;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Kafka value serializer that delegates to an EventCodec and stamps its content type.
+ */
+public class EventCodecSerializer implements Serializer<Object> {
+
+    private final EventCodec codec;
+    private final byte[] contentType;
+
+    public EventCodecSerializer(EventCodec codec) {
+        this.codec = codec;
+        this.contentType = codec.contentType().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return serialize(topic, null, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data == null) return null;
+        // Already-encoded payloads (e.g. relayed from the outbox) go out untouched with their own header
+        if (data instanceof byte[] bytes) return bytes;
+        try {
+            byte[] encoded = codec.encode(data);
+            if (headers != null && headers.lastHeader(EventCodec.CONTENT_TYPE_HEADER) == null) {
+                headers.add(EventCodec.CONTENT_TYPE_HEADER, contentType);
+            }
+            return encoded;
+        } catch (SerializationException e) {
+            throw new SerializationException("Error serializing event for topic: " + topic, e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executors for our own fan-out work.
+ *
+ * spring.threads.virtual.enabled switches the service between virtual and platform threads:
+ * Boot applies it to Tomcat and the @Scheduled/@Async executors, KafkaConsumerConfig to the
+ * listener containers, and this class to the order intake workers and the inventory event
+ * lanes. The inventory fan-out always runs on virtual threads.
+ */
+@Configuration
+public class ExecutionConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * Runs the concurrent per-item availability checks
+     *
+     * One virtual thread per call, whatever the switch says: a shared platform pool would
+     * make concurrent carts queue behind each other and time out on their availability
+     * deadline. What reaches the Inventory Service is bounded by its concurrency limiter
+     * and connection pool instead.
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService inventoryExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("inventory-", 0).factory());
+    }
+
+    /**
+     * Workers that place asynchronously accepted orders
+     *
+     * Fixed number of workers in front of a bounded queue; OrderIntakeService refuses
+     * new work (429) once both are full instead of letting the queue grow.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor orderIntakeExecutor(
+            @Value("${orders.intake.workers:32}") int workers,
+            @Value("${orders.intake.queue-capacity:1000}") int queueCapacity) {
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("order-intake-", 0).factory()
+                : Thread.ofPlatform().name("order-intake-", 0).daemon(true).factory();
+        return new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory);
+    }
+
+    /**
+     * Lanes the inventory-events listener applies events on
+     *
+     * Events are spread across lanes by orderId, so each order's events stay in order while
+     * different orders are applied in parallel (one transaction per lane per poll).
+     */
+    @Bean(destroyMethod = "close")
+    public KeyOrderedExecutor inventoryEventLanes(@Value("${kafka.consumer.order-lanes:8}") int lanes) {
+        return new KeyOrderedExecutor("inventory-lane-", lanes, virtualThreads);
+    }
+
+    /**
+     * The order archiver's own thread
+     *
+     * An archive run pauses between batches and can take minutes. On Boot's @Scheduled
+     * thread (just one unless spring.task.scheduling.pool.size says otherwise) it would hold
+     * up the outbox relay, the dedup offset flush and intake recovery for that long.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService orderArchiveExecutor() {
+        return Executors.newSingleThreadExecutor(Thread.ofPlatform().name("order-archive").daemon(true).factory());
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps concurrent requests per host and publishes the pool state.
+ *
+ * The JDK HttpClient pools and reuses connections (or HTTP/2 streams) but has no
+ * per-host limit and no pool metrics, so both live here. A permit is held from send
+ * until the response is closed; when none frees up within the acquire timeout the
+ * call fails fast with ResourceAccessException instead of queueing forever.
+ *
+ * Meters, tagged by name and host: http.client.pool.active, http.client.pool.pending,
+ * http.client.pool.max and the http.client.pool.acquire timer.
+ */
+public class HostConnectionLimiter implements ClientHttpRequestInterceptor {
+
+    private final String name;
+    private final int maxPerHost;
+    private final long acquireTimeoutMs;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, HostPool> pools = new ConcurrentHashMap<>();
+
+    public HostConnectionLimiter(String name, int maxPerHost, long acquireTimeoutMs, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxPerHost = maxPerHost;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String host = request.getURI().getHost() + ":" + request.getURI().getPort();
+        HostPool pool = pools.computeIfAbsent(host, this::newPool);
+
+        pool.acquire();
+        try {
+            return new ReleasingResponse(execution.execute(request, body), pool.permits);
+        } catch (IOException | RuntimeException e) {
+            pool.permits.release();
+            throw e;
+        }
+    }
+
+    private HostPool newPool(String host) {
+        Semaphore permits = new Semaphore(maxPerHost, true);
+        Gauge.builder("http.client.pool.active", permits, p -> maxPerHost - p.availablePermits())
+                .description("Requests holding a connection slot")
+                .tag("client", name).tag("host", host)
+                .register(meterRegistry);
+        Gauge.builder("http.client.pool.pending", permits, Semaphore::getQueueLength)
+                .description("Requests waiting for a connection slot")
+                .tag("client", name).tag("host", host)
+                .register(meterRegistry);
+        Gauge.builder("http.client.pool.max", () -> maxPerHost)
+                .tag("client", name).tag("host", host)
+                .register(meterRegistry);
+        Timer acquireTimer = Timer.builder("http.client.pool.acquire")
+                .description("Time spent waiting for a connection slot")
+                .tag("client", name).tag("host", host)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        return new HostPool(host, permits, acquireTimer);
+    }
+
+    private final class HostPool {
+        private final String host;
+        private final Semaphore permits;
+        private final Timer acquireTimer;
+
+        private HostPool(String host, Semaphore permits, Timer acquireTimer) {
+            this.host = host;
+            this.permits = permits;
+            this.acquireTimer = acquireTimer;
+        }
+
+        void acquire() {
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ResourceAccessException("Interrupted waiting for a connection to " + host);
+            } finally {
+                acquireTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            if (!acquired) {
+                throw new ResourceAccessException(String.format(
+                        "No connection to %s available within %d ms (limit %d)", host, acquireTimeoutMs, maxPerHost));
+            }
+        }
+    }
+
+    /**
+     * Gives the permit back once the caller is done with the response
+     */
+    private static final class ReleasingResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleasingResponse(ClientHttpResponse delegate, Semaphore permits) {
+            this.delegate = delegate;
+            this.permits = permits;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+        }
+    }
+}
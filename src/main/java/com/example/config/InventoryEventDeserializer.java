@@ -0,0 +1,82 @@
+package com.example.config;
+
+import com.example.dto.ProductChangedEvent;
+import com.example.dto.StockReleasedEvent;
+import com.example.dto.StockReservationFailedEvent;
+import com.example.dto.StockRevertEvent;
+import com.example.kafka.codec.BinaryEventCodec;
+import com.example.kafka.codec.EventCodec;
+import com.example.kafka.codec.JsonEventCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binds inventory events straight to their DTO class.
+ *
+ * The codec is picked by the "contentType" record header; records without one are JSON.
+ * The event type comes from the "eventType" header when the producer sets one, otherwise
+ * the codec finds it in the payload (JsonEventCodec peeks at the top-level "eventType"
+ * field without building a tree). Unknown types come back as null without the payload
+ * ever being bound.
+ */
+public class InventoryEventDeserializer implements Deserializer<Object> {
+
+    public static final String EVENT_TYPE_HEADER = EventCodec.EVENT_TYPE_HEADER;
+
+    private final EventCodec defaultCodec;
+    private final Map<String, EventCodec> codecs = new HashMap<>();
+
+    public InventoryEventDeserializer(ObjectMapper objectMapper) {
+        this(new JsonEventCodec(objectMapper)
+                        .register(StockReservationFailedEvent.class, "STOCK_RESERVATION_FAILED")
+                        .register(StockReleasedEvent.class, "STOCK_RELEASED")
+                        .register(StockRevertEvent.class, "STOCK_REVERTED")
+                        .register(ProductChangedEvent.class, "PRODUCT_UPDATED", "PRICE_CHANGED", "STOCK_UPDATED"),
+                new BinaryEventCodec());
+    }
+
+    /**
+     * @param defaultCodec used for records without a content type header
+     */
+    public InventoryEventDeserializer(EventCodec defaultCodec, EventCodec... otherCodecs) {
+        this.defaultCodec = defaultCodec;
+        codecs.put(defaultCodec.contentType(), defaultCodec);
+        for (EventCodec codec : otherCodecs) {
+            codecs.put(codec.contentType(), codec);
+        }
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) return null;
+
+        String contentType = header(headers, EventCodec.CONTENT_TYPE_HEADER);
+        EventCodec codec = contentType != null ? codecs.get(contentType) : defaultCodec;
+        if (codec == null) {
+            throw new SerializationException("Unsupported content type '" + contentType + "' on topic: " + topic);
+        }
+        try {
+            return codec.decode(data, header(headers, EVENT_TYPE_HEADER));
+        } catch (SerializationException e) {
+            throw new SerializationException("Error deserializing " + codec.contentType() + " from topic: " + topic, e);
+        }
+    }
+
+    private static String header(Headers headers, String name) {
+        if (headers == null) return null;
+        Header header = headers.lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.config;
+
+import com.example.client.AdaptiveConcurrencyLimiter;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker and adaptive concurrency limit for calls to the Inventory Service.
+ * InventoryServiceClient checks both before every HTTP call and reports the result back.
+ */
+@Configuration
+public class InventoryResilienceConfig {
+
+    private static final String INVENTORY = "inventory";
+
+    /**
+     * Opens when, over the last sliding-window-size calls, either the failure rate or the
+     * share of calls slower than slow-call-duration-ms crosses its threshold. 4xx answers
+     * don't count: the service is up, it just said no.
+     *
+     * Metrics: resilience4j.circuitbreaker.state / calls / failure.rate / slow.call.rate
+     */
+    @Bean
+    public CircuitBreaker inventoryCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${inventory.resilience.sliding-window-size:50}") int slidingWindowSize,
+            @Value("${inventory.resilience.minimum-calls:20}") int minimumCalls,
+            @Value("${inventory.resilience.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${inventory.resilience.slow-call-duration-ms:1000}") long slowCallDurationMs,
+            @Value("${inventory.resilience.slow-call-rate-threshold:50}") float slowCallRateThreshold,
+            @Value("${inventory.resilience.open-duration-ms:5000}") long openDurationMs,
+            @Value("${inventory.resilience.half-open-calls:5}") int halfOpenCalls) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallDurationMs))
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .waitDurationInOpenState(Duration.ofMillis(openDurationMs))
+                .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .ignoreExceptions(HttpClientErrorException.class)
+                .build();
+
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry.circuitBreaker(INVENTORY);
+    }
+
+    /**
+     * Metrics: concurrency.limiter.limit / in.flight / rejected, tagged name=inventory
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter inventoryConcurrencyLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${inventory.resilience.limit.initial:20}") int initialLimit,
+            @Value("${inventory.resilience.limit.min:4}") int minLimit,
+            @Value("${inventory.resilience.limit.max:200}") int maxLimit,
+            @Value("${inventory.resilience.limit.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${inventory.resilience.slow-call-duration-ms:1000}") long slowCallDurationMs) {
+        return new AdaptiveConcurrencyLimiter(INVENTORY, initialLimit, minLimit, maxLimit, backoffRatio,
+                TimeUnit.MILLISECONDS.toNanos(slowCallDurationMs), meterRegistry);
+    }
+}
@@ -1,18 +1,30 @@
 package com.example.config;
 
+import com.example.kafka.InventoryEventDeduplicator;
+import com.example.kafka.InventoryEventRetryRouter;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.util.backoff.ExponentialBackOff;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @EnableKafka
@@ -25,35 +37,117 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${kafka.consumer.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Value("${kafka.consumer.concurrency:3}")
+    private int concurrency;
+
+    @Value("${kafka.retry.partitions:1}")
+    private int retryPartitions;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     @Bean
-    public ConsumerFactory<String, Map<String, Object>> consumerFactory(
+    public ConsumerFactory<String, Object> consumerFactory(
             @Qualifier("objectMapper") ObjectMapper objectMapper) {
 
-        // ✅ No longer tied to any specific event class
-        JacksonKafkaDeserializer deserializer =
-                new JacksonKafkaDeserializer(objectMapper);
+        // ✅ Binds each record straight to its event DTO, unknown event types come back as null
+        InventoryEventDeserializer deserializer =
+                new InventoryEventDeserializer(objectMapper);
 
         Map<String, Object> config = new HashMap<>();
         config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        // Upper bound on how many records one batch listener call gets
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
 
         return new DefaultKafkaConsumerFactory<>(
                 config,
                 new StringDeserializer(),
-                deserializer
+                // A payload that can't be read arrives as a null value with the error in a header,
+                // so the listener can dead-letter it instead of the poll failing on it forever
+                new ErrorHandlingDeserializer<>(deserializer)
         );
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, Map<String, Object>>
+    public ConcurrentKafkaListenerContainerFactory<String, Object>
     kafkaListenerContainerFactory(
-            ConsumerFactory<String, Map<String, Object>> consumerFactory) {
+            ConsumerFactory<String, Object> consumerFactory,
+            InventoryEventDeduplicator deduplicator) {
+
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        // One consumer per partition; any beyond the partition count would sit idle
+        factory.setConcurrency(concurrency);
+        // Whole poll handed to the listener at once; offsets are committed only after it returns,
+        // i.e. after the batch's DB transaction has committed
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.setCommonErrorHandler(brokerOutageErrorHandler());
+        // Loads processed offsets on assignment and saves them on revocation
+        factory.getContainerProperties().setConsumerRebalanceListener(deduplicator);
+        if (virtualThreads) {
+            // Consumer threads block on the DB for most of each batch — no need to hold a platform thread
+            factory.getContainerProperties().setListenerTaskExecutor(virtualThreadExecutor("inventory-listener-"));
+        }
+        return factory;
+    }
 
-        ConcurrentKafkaListenerContainerFactory<String, Map<String, Object>> factory =
+    /**
+     * Record-at-a-time containers for the inventory retry topics (see InventoryEventRetryListener)
+     *
+     * Manual acks so a record that isn't due yet can be nacked with a sleep: the container
+     * pauses and seeks back instead of blocking in the listener.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object>
+    retryListenerContainerFactory(
+            ConsumerFactory<String, Object> consumerFactory,
+            InventoryEventDeduplicator deduplicator) {
+
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(brokerOutageErrorHandler());
+        // Loads processed offsets on assignment and saves them on revocation
+        factory.getContainerProperties().setConsumerRebalanceListener(deduplicator);
+        if (virtualThreads) {
+            factory.getContainerProperties().setListenerTaskExecutor(virtualThreadExecutor("inventory-retry-"));
+        }
         return factory;
     }
+
+    @Bean
+    public KafkaAdmin.NewTopics inventoryRetryTopics(InventoryEventRetryRouter retryRouter) {
+        List<NewTopic> topics = new ArrayList<>();
+        for (String topic : retryRouter.retryTopics()) {
+            topics.add(TopicBuilder.name(topic).partitions(retryPartitions).replicas(1).build());
+        }
+        topics.add(TopicBuilder.name(retryRouter.dltTopic()).partitions(retryPartitions).replicas(1).build());
+        return new KafkaAdmin.NewTopics(topics.toArray(NewTopic[]::new));
+    }
+
+    /**
+     * Event failures are routed to the retry topics by the listeners themselves, so what
+     * reaches the container is a failure to forward them (Kafka unreachable). Nothing to
+     * skip to in that case: redeliver with backoff until the broker is back.
+     */
+    private static DefaultErrorHandler brokerOutageErrorHandler() {
+        ExponentialBackOff backOff = new ExponentialBackOff(1000, 2);
+        backOff.setMaxInterval(30_000);
+        return new DefaultErrorHandler(backOff);
+    }
+
+    private static SimpleAsyncTaskExecutor virtualThreadExecutor(String threadNamePrefix) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        return executor;
+    }
 }
\ No newline at end of file
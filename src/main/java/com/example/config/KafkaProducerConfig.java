@@ -1,5 +1,8 @@
 package com.example.config;
 
+import com.example.kafka.codec.BinaryEventCodec;
+import com.example.kafka.codec.EventCodec;
+import com.example.kafka.codec.JsonEventCodec;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -8,6 +11,7 @@ import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
@@ -24,6 +28,15 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${kafka.producer.codec:json}")
+    private String codec;
+
+    @Value("${kafka.producer.compression-type:none}")
+    private String compressionType;
+
+    @Value("${kafka.producer.linger-ms:0}")
+    private int lingerMs;
+
     /**
      * ObjectMapper with JavaTimeModule — handles LocalDateTime serialization
      */
@@ -36,11 +49,26 @@ public class KafkaProducerConfig {
     }
 
     /**
-     * Producer factory using our custom JacksonKafkaSerializer
+     * Wire format for order events, used by the outbox when it encodes a payload
+     *
+     * json keeps every existing consumer working; binary is several times smaller and
+     * only readable by consumers that select the codec from the contentType header.
+     */
+    @Bean
+    public EventCodec orderEventCodec(ObjectMapper objectMapper) {
+        return switch (codec) {
+            case "json" -> new JsonEventCodec(objectMapper);
+            case "binary" -> new BinaryEventCodec();
+            default -> throw new IllegalArgumentException("Unknown kafka.producer.codec: " + codec);
+        };
+    }
+
+    /**
+     * Producer factory using our EventCodecSerializer
      * Avoids all deprecated Spring Kafka serializer classes
      */
     @Bean
-    public ProducerFactory<String, Object> producerFactory(ObjectMapper objectMapper) {
+    public ProducerFactory<String, Object> producerFactory(EventCodec orderEventCodec) {
         Map<String, Object> config = new HashMap<>();
         config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
@@ -48,26 +76,53 @@ public class KafkaProducerConfig {
         config.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, 30000);
         config.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, 120000);
         config.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, 60000);
-        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false);  // ✅ disable idempotence
-        config.put(ProducerConfig.RETRIES_CONFIG, 3);
+        // Idempotence keeps records of one partition in order across retries (up to 5 in flight);
+        // the outbox relay relies on that for per-order ordering. It requires acks=all.
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
         config.put(ProducerConfig.RETRY_BACKOFF_MS_CONFIG, 1000);
+        // Compression works on whole batches, so a short linger lets a batch fill first
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
 
         return new DefaultKafkaProducerFactory<>(
                 config,
                 new StringSerializer(),
-                new JacksonKafkaSerializer(objectMapper)  // our custom serializer
+                new EventCodecSerializer(orderEventCodec)  // our custom serializer
         );
     }
     @Bean
-    public NewTopic orderEventsTopic() {
-        return TopicBuilder.name("order-events")
-                .partitions(3)
+    public NewTopic orderEventsTopic(
+            @Value("${kafka.topic.order-events:order-events}") String topic,
+            @Value("${kafka.topic.order-events.partitions:3}") int partitions) {
+        return TopicBuilder.name(topic)
+                .partitions(partitions)
                 .replicas(1)
                 .build();
     }
 
     @Bean
+    @Primary
     public KafkaTemplate<String, Object> kafkaTemplate(ProducerFactory<String, Object> producerFactory) {
         return new KafkaTemplate<>(producerFactory);
     }
+
+    /**
+     * Republishes failed inventory events to the retry topics and the DLT
+     *
+     * Always JSON: the records hold inventory event DTOs, which the binary codec has no
+     * schema for. Undeserializable records are forwarded as their original bytes.
+     */
+    @Bean
+    public KafkaTemplate<String, Object> inventoryRetryTemplate(ObjectMapper objectMapper) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false);
+        config.put(ProducerConfig.RETRIES_CONFIG, 3);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+                config,
+                new StringSerializer(),
+                new EventCodecSerializer(new JsonEventCodec(objectMapper))));
+    }
 }
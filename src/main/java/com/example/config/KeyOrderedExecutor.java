@@ -0,0 +1,72 @@
+package com.example.config;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs tasks concurrently across keys but strictly in submission order per key.
+ *
+ * A fixed number of lanes, each a single thread; a key always hashes to the same lane,
+ * so two tasks for one key never overlap or reorder while different keys spread across
+ * lanes. Used to apply inventory events per order in parallel.
+ */
+public class KeyOrderedExecutor implements AutoCloseable {
+
+    private final ExecutorService[] lanes;
+
+    public KeyOrderedExecutor(String namePrefix, int laneCount, boolean virtualThreads) {
+        if (laneCount < 1) {
+            throw new IllegalArgumentException("laneCount must be at least 1, was " + laneCount);
+        }
+        this.lanes = new ExecutorService[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            ThreadFactory threadFactory = virtualThreads
+                    ? Thread.ofVirtual().name(namePrefix + i).factory()
+                    : Thread.ofPlatform().name(namePrefix + i).daemon(true).factory();
+            lanes[i] = Executors.newSingleThreadExecutor(threadFactory);
+        }
+    }
+
+    public int laneCount() {
+        return lanes.length;
+    }
+
+    public int laneOf(Object key) {
+        int hash = key.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), lanes.length);
+    }
+
+    /**
+     * Run the task on the key's lane, after everything submitted there before it
+     */
+    public CompletableFuture<Void> submit(Object key, Runnable task) {
+        return submitToLane(laneOf(key), task);
+    }
+
+    /**
+     * For callers that have already grouped their work with laneOf
+     */
+    public CompletableFuture<Void> submitToLane(int lane, Runnable task) {
+        return CompletableFuture.runAsync(task, lanes[lane]);
+    }
+
+    /**
+     * Finish what is queued, then stop
+     */
+    @Override
+    public void close() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        try {
+            for (ExecutorService lane : lanes) {
+                lane.awaitTermination(30, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.config;
+
+import com.example.enums.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers and counters for the order flow.
+ *
+ * Every meter is registered up front and looked up by array index (or from a map that
+ * already holds every known event type), so recording never builds tags or allocates.
+ * Callers take System.nanoTime() at the start of a step and pass it in at the end.
+ *
+ * Timers publish p50/p95/p99 plus a percentile histogram for Prometheus.
+ */
+@Component
+public class OrderMetrics {
+
+    /** Phases of OrderService.placeOrder */
+    public enum Phase {
+        USER_VALIDATION,
+        AVAILABILITY,
+        PERSISTENCE,    // The transaction up to and including its commit, minus EVENT_PUBLISH
+        EVENT_PUBLISH   // Writing the OrderCreated outbox row
+    }
+
+    /** Calls made by InventoryServiceClient */
+    public enum InventoryCall {
+        SINGLE,
+        BULK
+    }
+
+    public enum Outcome {
+        SUCCESS,
+        FALLBACK,       // Bulk endpoint unusable, per-item checks took over
+        CLIENT_ERROR,
+        SERVER_ERROR,
+        IO_ERROR,       // Connect/read timeouts, refused connections
+        REJECTED,       // Not sent: circuit open or concurrency limit reached
+        ERROR
+    }
+
+    private static final List<String> PRODUCED_EVENT_TYPES =
+            List.of("ORDER_CREATED", "ORDER_CANCELLED", "ORDER_COMPLETED");
+    private static final List<String> CONSUMED_EVENT_TYPES =
+            List.of("STOCK_RESERVATION_FAILED", "STOCK_RELEASED", "STOCK_REVERTED", "PRODUCT_CHANGED");
+
+    private final MeterRegistry meterRegistry;
+
+    private final Timer[] phaseTimers;
+    private final Timer[][] inventoryTimers;
+    private final Map<String, Timer> sendTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> handleTimers = new ConcurrentHashMap<>();
+    private final Counter[] transitionCounters;
+
+    public OrderMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        Phase[] phases = Phase.values();
+        this.phaseTimers = new Timer[phases.length];
+        for (Phase phase : phases) {
+            phaseTimers[phase.ordinal()] = timer("orders.place.phase")
+                    .description("Time spent in each placeOrder phase")
+                    .tag("phase", tagValue(phase))
+                    .register(meterRegistry);
+        }
+
+        InventoryCall[] calls = InventoryCall.values();
+        Outcome[] outcomes = Outcome.values();
+        this.inventoryTimers = new Timer[calls.length][outcomes.length];
+        for (InventoryCall call : calls) {
+            for (Outcome outcome : outcomes) {
+                inventoryTimers[call.ordinal()][outcome.ordinal()] = timer("inventory.client.requests")
+                        .description("Inventory Service availability calls")
+                        .tag("call", tagValue(call))
+                        .tag("outcome", tagValue(outcome))
+                        .register(meterRegistry);
+            }
+        }
+
+        PRODUCED_EVENT_TYPES.forEach(this::sendTimer);
+        CONSUMED_EVENT_TYPES.forEach(this::handleTimer);
+
+        // Tagged by target only: conditional UPDATEs don't tell us which source status matched
+        OrderStatus[] statuses = OrderStatus.values();
+        this.transitionCounters = new Counter[statuses.length];
+        for (OrderStatus to : statuses) {
+            transitionCounters[to.ordinal()] = Counter.builder("orders.status.transitions")
+                    .description("Order status changes")
+                    .tag("to", to.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * @return the time recorded, in nanos
+     */
+    public long recordPhase(Phase phase, long startNanos) {
+        return recordPhase(phase, startNanos, 0);
+    }
+
+    /**
+     * Record a phase that contains another one, leaving out the time of the inner phase
+     * so the phases don't overlap
+     */
+    public long recordPhase(Phase phase, long startNanos, long excludedNanos) {
+        long elapsed = System.nanoTime() - startNanos - excludedNanos;
+        phaseTimers[phase.ordinal()].record(elapsed, TimeUnit.NANOSECONDS);
+        return elapsed;
+    }
+
+    public void recordInventoryCall(InventoryCall call, Outcome outcome, long startNanos) {
+        inventoryTimers[call.ordinal()][outcome.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Producer send-to-broker-ack latency
+     */
+    public void recordSend(String eventType, long startNanos) {
+        sendTimer(eventType).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Consumer handling time for one inventory event
+     */
+    public void recordHandled(String eventType, long startNanos) {
+        handleTimer(eventType).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordTransition(OrderStatus to) {
+        transitionCounters[to.ordinal()].increment();
+    }
+
+    private Timer sendTimer(String eventType) {
+        Timer timer = sendTimers.get(eventType);
+        if (timer != null) {
+            return timer;
+        }
+        return sendTimers.computeIfAbsent(eventType, type -> timer("kafka.producer.send")
+                .description("Time from send to broker acknowledgement")
+                .tag("event_type", type)
+                .register(meterRegistry));
+    }
+
+    private Timer handleTimer(String eventType) {
+        Timer timer = handleTimers.get(eventType);
+        if (timer != null) {
+            return timer;
+        }
+        return handleTimers.computeIfAbsent(eventType, type -> timer("kafka.consumer.handle")
+                .description("Time to handle one inventory event")
+                .tag("event_type", type)
+                .register(meterRegistry));
+    }
+
+    private static Timer.Builder timer(String name) {
+        return Timer.builder(name)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram();
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
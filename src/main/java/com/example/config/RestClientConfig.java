@@ -1,14 +1,55 @@
 package com.example.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 @Configuration
 public class RestClientConfig {
 
+    /**
+     * Transport for InventoryServiceClient
+     *
+     * JDK HttpClient: keeps connections alive and reuses them across calls, negotiates
+     * HTTP/2 when the server supports it (multiplexing the availability fan-out over one
+     * connection), and falls back to HTTP/1.1 otherwise. Connect and read timeouts are
+     * explicit; HostConnectionLimiter caps concurrent requests per host and exposes the
+     * pool metrics.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate inventoryRestTemplate(
+            MeterRegistry meterRegistry,
+            @Value("${inventory.http.version:HTTP_2}") HttpClient.Version version,
+            @Value("${inventory.http.connect-timeout-ms:1000}") long connectTimeoutMs,
+            @Value("${inventory.http.read-timeout-ms:2000}") long readTimeoutMs,
+            @Value("${inventory.http.max-connections-per-host:64}") int maxConnectionsPerHost,
+            @Value("${inventory.http.acquire-timeout-ms:1000}") long acquireTimeoutMs) {
+        HttpClient httpClient = httpClient(version, Duration.ofMillis(connectTimeoutMs));
+        HostConnectionLimiter limiter =
+                new HostConnectionLimiter("inventory", maxConnectionsPerHost, acquireTimeoutMs, meterRegistry);
+        return restTemplate(httpClient, Duration.ofMillis(readTimeoutMs), limiter);
+    }
+
+    static HttpClient httpClient(HttpClient.Version version, Duration connectTimeout) {
+        return HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    static RestTemplate restTemplate(HttpClient httpClient, Duration readTimeout, HostConnectionLimiter limiter) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(limiter);
+        return restTemplate;
     }
-}
\ No newline at end of file
+}
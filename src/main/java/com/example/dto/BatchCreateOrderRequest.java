@@ -0,0 +1,23 @@
+package com.example.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCreateOrderRequest {
+
+    @NotEmpty(message = "Batch must contain at least one order")
+    @Size(max = 1000, message = "Batch must not contain more than 1000 orders")
+    @Valid
+    private List<CreateOrderRequest> orders;
+}
@@ -0,0 +1,18 @@
+package com.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCreateOrderResponse {
+    private int placed;
+    private int failed;
+    private List<BatchOrderResult> results;   // One per requested order, in request order
+}
@@ -0,0 +1,28 @@
+package com.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one order in a batch; index is its position in the request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOrderResult {
+    private int index;
+    private boolean success;
+    private Long orderId;   // Set on success
+    private String error;   // Set on failure
+
+    public static BatchOrderResult placed(int index, Long orderId) {
+        return BatchOrderResult.builder().index(index).success(true).orderId(orderId).build();
+    }
+
+    public static BatchOrderResult failed(int index, String error) {
+        return BatchOrderResult.builder().index(index).success(false).error(error).build();
+    }
+}
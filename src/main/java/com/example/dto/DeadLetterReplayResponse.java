@@ -0,0 +1,16 @@
+package com.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeadLetterReplayResponse {
+    private String topic;
+    private int replayed;
+    private long remaining;     // Still on the DLT after this call
+}
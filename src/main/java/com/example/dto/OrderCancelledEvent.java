@@ -0,0 +1,15 @@
+package com.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCancelledEvent {
+    private Long orderId;
+    private String eventType; // "ORDER_CANCELLED"
+}
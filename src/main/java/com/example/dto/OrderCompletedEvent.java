@@ -0,0 +1,16 @@
+package com.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCompletedEvent {
+    private Long orderId;
+    private Long userId;
+    private String eventType; // "ORDER_COMPLETED"
+}
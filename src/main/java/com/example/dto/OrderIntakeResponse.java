@@ -0,0 +1,22 @@
+package com.example.dto;
+
+import com.example.enums.IntakeStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIntakeResponse {
+    private String intakeId;
+    private IntakeStatus status;
+    private String statusUrl;
+    private Long orderId;         // Set once PLACED
+    private String failureReason; // Set once FAILED
+    private LocalDateTime acceptedAt;
+}
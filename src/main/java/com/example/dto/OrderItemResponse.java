@@ -0,0 +1,28 @@
+package com.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Read view of an order line. The field order is the constructor used by the
+ * "select new" query in OrderRepository.findItemsByOrderIds — keep them in step.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderItemResponse {
+    @JsonIgnore
+    private Long orderId;         // Only used to group lines under their order
+    private Long productId;
+    private String productName;
+    private String productSku;
+    private Integer quantity;
+    private BigDecimal priceAtOrder;
+    private BigDecimal subtotal;
+}
@@ -0,0 +1,68 @@
+package com.example.dto;
+
+import com.example.entities.Order;
+import com.example.entities.OrderItem;
+import com.example.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What the API returns for an order — a plain copy, so serializing it can never
+ * trigger lazy loading.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderResponse {
+    private Long orderId;
+    private Long userId;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private String shippingAddress;
+    private List<OrderItemResponse> items;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    /**
+     * Copy an order whose items are already loaded
+     */
+    public static OrderResponse from(Order order) {
+        List<OrderItemResponse> items = new ArrayList<>(order.getOrderItems().size());
+        for (OrderItem item : order.getOrderItems()) {
+            items.add(OrderItemResponse.builder()
+                    .orderId(order.getOrderId())
+                    .productId(item.getProductId())
+                    .productName(item.getProductName())
+                    .productSku(item.getProductSku())
+                    .quantity(item.getQuantity())
+                    .priceAtOrder(item.getPriceAtOrder())
+                    .subtotal(item.getSubtotal())
+                    .build());
+        }
+        return from(order, items);
+    }
+
+    /**
+     * Copy an order's own columns, with items fetched separately
+     */
+    public static OrderResponse from(Order order, List<OrderItemResponse> items) {
+        return OrderResponse.builder()
+                .orderId(order.getOrderId())
+                .userId(order.getUserId())
+                .status(order.getStatus())
+                .totalAmount(order.getTotalAmount())
+                .shippingAddress(order.getShippingAddress())
+                .items(items)
+                .createdAt(order.getCreatedAt())
+                .updatedAt(order.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProductChangedEvent {
+    private String eventType; // "PRODUCT_UPDATED", "PRICE_CHANGED" or "STOCK_UPDATED"
+    private Long productId;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,48 @@
+package com.example.entities;
+
+import com.example.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A finished order moved out of the orders table by OrderArchiveService. Same columns,
+ * no associations: archived rows are only ever read, a page at a time.
+ */
+@Entity
+@Table(name = "archived_orders")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedOrder {
+
+    @Id
+    private Long orderId;         // Same ID as the order had
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal totalAmount;
+
+    private String shippingAddress;
+
+    // Partitioning key of the optional range partitions (db/mysql/archive-partitioning.sql)
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
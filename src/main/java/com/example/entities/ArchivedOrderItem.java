@@ -0,0 +1,50 @@
+package com.example.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * An order line moved to the archive with its order. Carries the order's createdAt so
+ * both archive tables can be range-partitioned, and old partitions dropped, together.
+ */
+@Entity
+@Table(name = "archived_order_items")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedOrderItem {
+
+    @Id
+    private Long id;              // Same ID as the order line had
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private LocalDateTime orderCreatedAt;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private String productName;
+
+    @Column(nullable = false)
+    private String productSku;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal priceAtOrder;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal subtotal;
+}
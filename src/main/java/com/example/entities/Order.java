@@ -5,8 +5,10 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -17,14 +19,19 @@ import java.util.List;
 
 @Entity
 @Table(name = "orders")
-@Data
+// No @Data: equals/hashCode/toString would walk the lazy orderItems graph
+@Getter
+@Setter
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
 
+    // Pooled sequence (a table on MySQL): IDs are handed out 50 at a time, so inserts
+    // don't need the generated key back and Hibernate can batch them
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "order_seq", allocationSize = 50)
     private Long orderId;
 
     @Column(nullable = false)
@@ -51,4 +58,11 @@ public class Order {
 
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+
+    // Guards the paths that load and modify the entity; the conditional status UPDATEs
+    // in OrderRepository bump it too. Null until persisted, so saveAll() still persists.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
\ No newline at end of file
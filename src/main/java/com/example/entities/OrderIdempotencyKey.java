@@ -0,0 +1,34 @@
+package com.example.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An Idempotency-Key used on a synchronous order placement, with the order it created.
+ * Written in the order's transaction, so the key exists if and only if the order does.
+ */
+@Entity
+@Table(name = "order_idempotency_keys")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIdempotencyKey {
+
+    @Id
+    private String idempotencyKey; // "userId:key"
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;    // SHA-256 of the request JSON, to spot a key reused for another request
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
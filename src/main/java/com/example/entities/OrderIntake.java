@@ -0,0 +1,54 @@
+package com.example.entities;
+
+import com.example.enums.IntakeStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order request accepted for asynchronous placement.
+ * The original request is kept as JSON so a worker (or recovery after a restart) can place it.
+ */
+@Entity
+@Table(name = "order_intakes")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderIntake {
+
+    @Id
+    @Column(length = 36)
+    private String intakeId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    private String idempotencyKey; // "userId:key" when the client sent an Idempotency-Key
+
+    @Lob
+    @Column(nullable = false)
+    private String payload;       // CreateOrderRequest as JSON
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private IntakeStatus status = IntakeStatus.ACCEPTED;
+
+    private Long orderId;         // Set once PLACED
+
+    private String failureReason; // Set once FAILED
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime acceptedAt;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+}
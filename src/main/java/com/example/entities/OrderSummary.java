@@ -0,0 +1,43 @@
+package com.example.entities;
+
+import com.example.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read model for order history lists: one compact row per order, written in the same
+ * transaction as the order change. Full details come from Order on drill-down.
+ */
+@Entity
+@Table(name = "order_summaries")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummary {
+
+    @Id
+    private Long orderId;         // Same ID as the order
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(nullable = false)
+    private Integer itemCount;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,51 @@
+package com.example.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * An event waiting to be published to Kafka.
+ *
+ * Written in the same transaction as the order change it describes, then drained
+ * by OutboxRelay. sentAt stays null until the broker has acknowledged the record.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long aggregateId;     // orderId the event belongs to
+
+    @Column(nullable = false, length = 50)
+    private String eventType;
+
+    @Column(nullable = false)
+    private String topic;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] payload;       // Encoded event, exactly as it goes on the wire
+
+    @Column(nullable = false, length = 64)
+    private String contentType;   // EventCodec that produced the payload, sent as the contentType header
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,34 @@
+package com.example.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * How far a consumed partition has been processed: every offset below nextOffset is done.
+ *
+ * Lets InventoryEventDeduplicator recognise redelivered records after a restart or when a
+ * partition moves to another instance. One row per topic partition.
+ */
+@Entity
+@Table(name = "processed_event_offsets")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedEventOffset {
+
+    @Id
+    @Column(length = 255)
+    private String topicPartition;    // TopicPartition.toString(), e.g. "inventory-events-2"
+
+    @Column(nullable = false)
+    private Long nextOffset;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
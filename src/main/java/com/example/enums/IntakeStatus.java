@@ -0,0 +1,8 @@
+package com.example.enums;
+
+public enum IntakeStatus {
+    ACCEPTED,   // Persisted and queued, placement not started yet
+    PROCESSING, // A worker is placing the order
+    PLACED,     // Order created — see orderId
+    FAILED,     // Placement failed — see failureReason
+}
@@ -1,5 +1,11 @@
 package com.example.enums;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum OrderStatus {
     PENDING, // Order created, waiting for inventory reservation
     PLACED,  // Inventory reserved, waiting for payment
@@ -8,4 +14,30 @@ public enum OrderStatus {
     CONFIRMED,         // Payment successful
     COMPLETED,         // Order completed
     CANCELLED,         // Order cancelled
-}
\ No newline at end of file
+    ;
+
+    // Transition table: target status -> statuses an order may move to it from
+    private static final Map<OrderStatus, Set<OrderStatus>> ALLOWED_FROM = new EnumMap<>(OrderStatus.class);
+
+    static {
+        ALLOWED_FROM.put(PENDING, EnumSet.noneOf(OrderStatus.class));
+        ALLOWED_FROM.put(PLACED, EnumSet.of(PENDING));
+        ALLOWED_FROM.put(INVENTORY_RESERVED, EnumSet.of(PENDING, PLACED));
+        ALLOWED_FROM.put(PAYMENT_PENDING, EnumSet.of(PLACED, INVENTORY_RESERVED));
+        ALLOWED_FROM.put(CONFIRMED, EnumSet.of(PAYMENT_PENDING));
+        ALLOWED_FROM.put(COMPLETED, EnumSet.of(PENDING, CONFIRMED));
+        ALLOWED_FROM.put(CANCELLED, EnumSet.of(PENDING, INVENTORY_RESERVED, PAYMENT_PENDING));
+        ALLOWED_FROM.replaceAll((status, from) -> Collections.unmodifiableSet(from));
+    }
+
+    /**
+     * Statuses an order may move to this one from
+     */
+    public Set<OrderStatus> allowedFrom() {
+        return ALLOWED_FROM.get(this);
+    }
+
+    public boolean canTransitionFrom(OrderStatus from) {
+        return ALLOWED_FROM.get(this).contains(from);
+    }
+}
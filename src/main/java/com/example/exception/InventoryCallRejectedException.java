@@ -0,0 +1,15 @@
+package com.example.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * An inventory call refused locally (circuit open or concurrency limit reached),
+ * without anything being sent
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class InventoryCallRejectedException extends InventoryServiceException {
+    public InventoryCallRejectedException(String message) {
+        super(message);
+    }
+}
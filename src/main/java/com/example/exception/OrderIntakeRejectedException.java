@@ -0,0 +1,7 @@
+package com.example.exception;
+
+public class OrderIntakeRejectedException extends RuntimeException {
+    public OrderIntakeRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.kafka;
+
+import com.example.dto.DeadLetterReplayResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends records from the inventory DLT back to the topic they were first consumed from.
+ *
+ * Reads the DLT with its own consumer group, so each replay continues where the last one
+ * stopped. Records go back byte for byte with the DLT and retry headers removed, which
+ * gives them a fresh set of retry attempts. Offsets are committed only after every send
+ * has been acknowledged: a failed replay is repeated in full by the next call.
+ */
+@Component
+@Slf4j
+public class DeadLetterReplayer {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final InventoryEventRetryRouter retryRouter;
+    private final String bootstrapServers;
+    private final String groupId;
+    private final String inventoryEventsTopic;
+    private final int maxReplay;
+    private final long sendTimeoutMs;
+
+    public DeadLetterReplayer(
+            KafkaTemplate<String, Object> kafkaTemplate,
+            InventoryEventRetryRouter retryRouter,
+            @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+            @Value("${spring.kafka.consumer.group-id}") String groupId,
+            @Value("${kafka.topic.inventory-events}") String inventoryEventsTopic,
+            @Value("${kafka.retry.replay-max:10000}") int maxReplay,
+            @Value("${kafka.retry.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.retryRouter = retryRouter;
+        this.bootstrapServers = bootstrapServers;
+        this.groupId = groupId + "-dlt-replay";
+        this.inventoryEventsTopic = inventoryEventsTopic;
+        this.maxReplay = maxReplay;
+        this.sendTimeoutMs = sendTimeoutMs;
+    }
+
+    /**
+     * Replay up to limit records, oldest first per partition
+     */
+    public synchronized DeadLetterReplayResponse replay(int limit) {
+        int max = Math.clamp(limit, 1, maxReplay);
+        String dlt = retryRouter.dltTopic();
+
+        try (KafkaConsumer<String, byte[]> consumer = newConsumer()) {
+            List<TopicPartition> partitions = consumer.partitionsFor(dlt).stream()
+                    .map(info -> new TopicPartition(info.topic(), info.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+            long backlog = 0;
+            for (TopicPartition partition : partitions) {
+                backlog += endOffsets.get(partition) - consumer.position(partition);
+            }
+
+            Map<TopicPartition, OffsetAndMetadata> replayedUpTo = new HashMap<>();
+            List<CompletableFuture<?>> sends = new ArrayList<>();
+            while (sends.size() < max && sends.size() < backlog) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(POLL_TIMEOUT);
+                if (records.isEmpty()) {
+                    break;
+                }
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    if (sends.size() == max) {
+                        break;
+                    }
+                    sends.add(kafkaTemplate.send(toOriginalTopic(record)));
+                    replayedUpTo.put(new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1));
+                }
+            }
+
+            kafkaTemplate.flush();
+            awaitSends(sends);
+            if (!replayedUpTo.isEmpty()) {
+                consumer.commitSync(replayedUpTo);
+            }
+            log.info("Replayed {} records from {}", sends.size(), dlt);
+
+            return DeadLetterReplayResponse.builder()
+                    .topic(dlt)
+                    .replayed(sends.size())
+                    .remaining(Math.max(0, backlog - sends.size()))
+                    .build();
+        }
+    }
+
+    private ProducerRecord<String, Object> toOriginalTopic(ConsumerRecord<String, byte[]> record) {
+        Header originalTopic = record.headers().lastHeader(KafkaHeaders.DLT_ORIGINAL_TOPIC);
+        String topic = originalTopic != null
+                ? new String(originalTopic.value(), StandardCharsets.UTF_8)
+                : inventoryEventsTopic;
+
+        List<Header> headers = new ArrayList<>();
+        for (Header header : record.headers()) {
+            if (!header.key().startsWith("kafka_dlt-")
+                    && !header.key().equals(InventoryEventRetryRouter.ATTEMPT_HEADER)
+                    && !header.key().equals(InventoryEventRetryRouter.DUE_AT_HEADER)) {
+                headers.add(header);
+            }
+        }
+        return new ProducerRecord<>(topic, null, record.key(), record.value(), headers);
+    }
+
+    private void awaitSends(List<CompletableFuture<?>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while replaying the DLT", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("DLT replay not acknowledged, nothing was committed", e);
+        }
+    }
+
+    private KafkaConsumer<String, byte[]> newConsumer() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+        return new KafkaConsumer<>(config, new StringDeserializer(), new ByteArrayDeserializer());
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.kafka;
+
+import com.example.entities.ProcessedEventOffset;
+import com.example.repository.ProcessedEventOffsetRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Drops redelivered inventory events before they reach the database.
+ *
+ * Records are identified by topic, partition and offset. Each assigned partition has a
+ * ProcessedOffsetWindow in memory, so the check is a map lookup and a bit test. The
+ * windows' high-water marks are written to processed_event_offsets every few seconds and
+ * when partitions are revoked, and read back when partitions are assigned, so records
+ * redelivered after a rebalance or a restart are recognised on another instance too.
+ *
+ * Best effort by design: a crash can lose the last few seconds of marks, and those
+ * records are then processed again. The status checks in OrderService still make that
+ * harmless; this layer only saves the work.
+ */
+@Component
+@Slf4j
+public class InventoryEventDeduplicator implements ConsumerAwareRebalanceListener {
+
+    private final ProcessedEventOffsetRepository offsetRepository;
+    private final int windowSize;
+    private final Map<TopicPartition, ProcessedOffsetWindow> windows = new ConcurrentHashMap<>();
+    private final Counter duplicates;
+
+    public InventoryEventDeduplicator(
+            ProcessedEventOffsetRepository offsetRepository,
+            MeterRegistry meterRegistry,
+            @Value("${kafka.dedup.window-size:8192}") int windowSize) {
+        this.offsetRepository = offsetRepository;
+        this.windowSize = windowSize;
+        this.duplicates = Counter.builder("kafka.consumer.duplicates")
+                .description("Redelivered inventory events skipped before processing")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Must be called for a partition's records in offset order, before any are marked
+     */
+    public boolean isDuplicate(ConsumerRecord<?, ?> record) {
+        // First record since assignment with nothing persisted: the consumer never goes below
+        // its starting position, so everything before this record counts as done
+        ProcessedOffsetWindow window = windows.computeIfAbsent(topicPartition(record),
+                tp -> new ProcessedOffsetWindow(windowSize, record.offset()));
+        if (window.isProcessed(record.offset())) {
+            duplicates.increment();
+            log.debug("Skipping redelivered event at {}-{}@{}", record.topic(), record.partition(), record.offset());
+            return true;
+        }
+        return false;
+    }
+
+    public void markProcessed(ConsumerRecord<?, ?> record) {
+        ProcessedOffsetWindow window = windows.get(topicPartition(record));
+        if (window != null) {
+            window.markProcessed(record.offset());
+        }
+    }
+
+    /**
+     * The whole poll is done: move each partition's mark past its last record
+     */
+    public void markProcessed(List<? extends ConsumerRecord<?, ?>> records) {
+        Map<TopicPartition, Long> nextOffsets = new HashMap<>();
+        for (ConsumerRecord<?, ?> record : records) {
+            nextOffsets.merge(topicPartition(record), record.offset() + 1, Math::max);
+        }
+        nextOffsets.forEach((partition, nextOffset) -> {
+            ProcessedOffsetWindow window = windows.get(partition);
+            if (window != null) {
+                window.advanceTo(nextOffset);
+            }
+        });
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        Map<String, TopicPartition> byId = new HashMap<>();
+        partitions.forEach(partition -> byId.put(partition.toString(), partition));
+
+        for (ProcessedEventOffset stored : offsetRepository.findAllById(byId.keySet())) {
+            TopicPartition partition = byId.get(stored.getTopicPartition());
+            windows.merge(partition, new ProcessedOffsetWindow(windowSize, stored.getNextOffset()),
+                    (current, loaded) -> current.base() >= loaded.base() ? current : loaded);
+        }
+        log.debug("Loaded processed offsets for {}", partitions);
+    }
+
+    @Override
+    public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        for (TopicPartition partition : partitions) {
+            ProcessedOffsetWindow window = windows.remove(partition);
+            if (window != null) {
+                persist(partition, window.takeDirtyBase());
+            }
+        }
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        // Someone else owns these now and may be further along — don't write stale marks
+        partitions.forEach(windows::remove);
+    }
+
+    @Scheduled(fixedDelayString = "${kafka.dedup.flush-interval-ms:5000}")
+    public void flush() {
+        windows.forEach((partition, window) -> persist(partition, window.takeDirtyBase()));
+    }
+
+    private void persist(TopicPartition partition, long nextOffset) {
+        if (nextOffset < 0) {
+            return;
+        }
+        try {
+            String id = partition.toString();
+            LocalDateTime now = LocalDateTime.now();
+            if (offsetRepository.advance(id, nextOffset, now) == 0 && !offsetRepository.existsById(id)) {
+                offsetRepository.save(new ProcessedEventOffset(id, nextOffset, now));
+            }
+        } catch (RuntimeException e) {
+            // Losing a mark only costs reprocessing; never fail the consumer over it
+            log.warn("Could not persist processed offset {} for {}: {}", nextOffset, partition, e.getMessage());
+        }
+    }
+
+    private static TopicPartition topicPartition(ConsumerRecord<?, ?> record) {
+        return new TopicPartition(record.topic(), record.partition());
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.kafka;
+
+import com.example.config.KeyOrderedExecutor;
+import com.example.service.OrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Consumes the inventory retry topics, one container per tier.
+ *
+ * Every record in a tier was delayed by the same amount, so records come due in offset
+ * order: a record that isn't due yet is nacked with a sleep for the remaining time,
+ * pausing only its own tier. Due records are applied on the same per-order lane as the
+ * main listener uses; a failure moves the record on to the next tier or the DLT.
+ *
+ * Each event applied or dead-lettered here releases its order in ParkedOrders; until
+ * then the main listener forwards the order's new events behind it, so they are not
+ * applied first. Within the retry topics, an event that fails again moves up a tier,
+ * and events of the same order still waiting in the lower tier can overtake it.
+ */
+@Component
+@Slf4j
+public class InventoryEventRetryListener implements AcknowledgingMessageListener<String, Object>, SmartLifecycle {
+
+    private final OrderService orderService;
+    private final KeyOrderedExecutor inventoryEventLanes;
+    private final InventoryEventRetryRouter retryRouter;
+    private final InventoryEventDeduplicator deduplicator;
+    private final ParkedOrders parkedOrders;
+    private final List<ConcurrentMessageListenerContainer<String, Object>> containers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public InventoryEventRetryListener(
+            OrderService orderService,
+            KeyOrderedExecutor inventoryEventLanes,
+            InventoryEventRetryRouter retryRouter,
+            InventoryEventDeduplicator deduplicator,
+            ParkedOrders parkedOrders,
+            @Qualifier("retryListenerContainerFactory")
+            ConcurrentKafkaListenerContainerFactory<String, Object> retryListenerContainerFactory) {
+        this.orderService = orderService;
+        this.inventoryEventLanes = inventoryEventLanes;
+        this.retryRouter = retryRouter;
+        this.deduplicator = deduplicator;
+        this.parkedOrders = parkedOrders;
+
+        for (String topic : retryRouter.retryTopics()) {
+            ConcurrentMessageListenerContainer<String, Object> container =
+                    retryListenerContainerFactory.createContainer(topic);
+            container.setBeanName(topic);
+            container.setupMessageListener(this);
+            containers.add(container);
+        }
+    }
+
+    @Override
+    public void onMessage(ConsumerRecord<String, Object> record, Acknowledgment ack) {
+        long wait = InventoryEventRetryRouter.dueAt(record) - System.currentTimeMillis();
+        if (wait > 0) {
+            ack.nack(Duration.ofMillis(wait));
+            return;
+        }
+        if (deduplicator.isDuplicate(record)) {
+            ack.acknowledge();
+            return;
+        }
+
+        Object event = record.value();
+        if (event == null) {
+            retryRouter.forward(record, new SerializationException("Retry record without an event"));
+            deduplicator.markProcessed(record);
+            ack.acknowledge();
+            return;
+        }
+
+        Long orderId;
+        try {
+            orderId = OrderEventConsumer.orderIdOf(event);
+        } catch (IllegalArgumentException e) {
+            retryRouter.forward(record, e);
+            deduplicator.markProcessed(record);
+            ack.acknowledge();
+            return;
+        }
+
+        try {
+            inventoryEventLanes.submit(orderId, () -> orderService.applyInventoryEvents(List.of(event))).join();
+            parkedOrders.release(orderId);
+            log.info("Retried {} from {} successfully", event.getClass().getSimpleName(), record.topic());
+        } catch (CompletionException e) {
+            if (!retryRouter.forward(record, e.getCause() instanceof Exception cause ? cause : e)) {
+                parkedOrders.release(orderId);
+            }
+        }
+        deduplicator.markProcessed(record);
+        ack.acknowledge();
+    }
+
+    @Override
+    public void start() {
+        containers.forEach(ConcurrentMessageListenerContainer::start);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        containers.forEach(ConcurrentMessageListenerContainer::stop);
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves failed inventory events off the main topic.
+ *
+ * A record that fails for the n-th time goes to retry tier n ({topic}-retry-n, one per
+ * configured delay) stamped with the time it becomes due; after the last tier, or right
+ * away for errors that can't succeed on a retry (undeserializable or unsupported events),
+ * it goes to {topic}-dlt. Records keep their key, so one order's events stay on one
+ * partition of each retry topic, in order.
+ *
+ * Forwarding waits for the broker's ack and throws if it fails, so the caller's offsets
+ * are not committed for a record that was neither applied nor forwarded.
+ */
+@Component
+@Slf4j
+public class InventoryEventRetryRouter {
+
+    public static final String ATTEMPT_HEADER = "retry-attempt";
+    public static final String DUE_AT_HEADER = "retry-due-at";
+
+    private final long[] delaysMs;
+    private final List<String> retryTopics;
+    private final String dltTopic;
+    private final DeadLetterPublishingRecoverer recoverer;
+    private final Map<String, Counter> forwarded = new HashMap<>();
+
+    public InventoryEventRetryRouter(
+            @Qualifier("inventoryRetryTemplate") KafkaTemplate<String, Object> inventoryRetryTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${kafka.topic.inventory-events}") String inventoryEventsTopic,
+            @Value("${kafka.retry.delays-ms:1000,10000,60000}") long[] delaysMs,
+            @Value("${kafka.retry.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.delaysMs = delaysMs;
+        this.retryTopics = new ArrayList<>(delaysMs.length);
+        for (int tier = 0; tier < delaysMs.length; tier++) {
+            retryTopics.add(inventoryEventsTopic + "-retry-" + tier);
+        }
+        this.dltTopic = inventoryEventsTopic + "-dlt";
+
+        this.recoverer = new DeadLetterPublishingRecoverer(inventoryRetryTemplate, this::destination);
+        recoverer.setHeadersFunction(this::retryHeaders);
+        // Keep the first kafka_dlt-original-* headers, i.e. where the record was first consumed
+        recoverer.setAppendOriginalHeaders(false);
+        recoverer.setWaitForSendResultTimeout(Duration.ofMillis(sendTimeoutMs));
+
+        List<String> destinations = new ArrayList<>(retryTopics);
+        destinations.add(dltTopic);
+        for (String topic : destinations) {
+            forwarded.put(topic, Counter.builder("kafka.consumer.retry.forwarded")
+                    .description("Inventory events moved to a retry topic or the DLT")
+                    .tag("topic", topic)
+                    .register(meterRegistry));
+        }
+    }
+
+    public List<String> retryTopics() {
+        return retryTopics;
+    }
+
+    public String dltTopic() {
+        return dltTopic;
+    }
+
+    /**
+     * Send the record to its next retry tier, or to the DLT
+     *
+     * @return true if it went to a retry topic, false if it was dead-lettered
+     */
+    public boolean forward(ConsumerRecord<?, ?> record, Exception cause) {
+        TopicPartition destination = destination(record, cause);
+        log.warn("Inventory event at {}-{}@{} failed ({}), forwarding to {}", record.topic(), record.partition(),
+                record.offset(), cause.toString(), destination.topic());
+        recoverer.accept(record, cause);
+        forwarded.get(destination.topic()).increment();
+        return !destination.topic().equals(dltTopic);
+    }
+
+    /**
+     * When a record read from a retry topic may be processed, in epoch millis
+     */
+    public static long dueAt(ConsumerRecord<?, ?> record) {
+        String dueAt = header(record.headers(), DUE_AT_HEADER);
+        return dueAt != null ? Long.parseLong(dueAt) : 0L;
+    }
+
+    private TopicPartition destination(ConsumerRecord<?, ?> record, Exception cause) {
+        int attempt = attemptOf(record);
+        String topic = attempt < delaysMs.length && isRetryable(cause) ? retryTopics.get(attempt) : dltTopic;
+        // No partition: the producer picks it from the key
+        return new TopicPartition(topic, -1);
+    }
+
+    private Headers retryHeaders(ConsumerRecord<?, ?> record, Exception cause) {
+        int attempt = attemptOf(record);
+        Headers headers = new RecordHeaders();
+        headers.add(ATTEMPT_HEADER, bytes(attempt + 1));
+        if (attempt < delaysMs.length && isRetryable(cause)) {
+            headers.add(DUE_AT_HEADER, bytes(System.currentTimeMillis() + delaysMs[attempt]));
+        }
+        return headers;
+    }
+
+    private static int attemptOf(ConsumerRecord<?, ?> record) {
+        String attempt = header(record.headers(), ATTEMPT_HEADER);
+        return attempt != null ? Integer.parseInt(attempt) : 0;
+    }
+
+    /**
+     * Anything but a payload we can't read or handle is worth another try
+     */
+    private static boolean isRetryable(Throwable cause) {
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof SerializationException
+                    || t instanceof DeserializationException
+                    || t instanceof IllegalArgumentException
+                    || t instanceof ClassCastException) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String header(Headers headers, String name) {
+        Header header = headers.lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+
+    private static byte[] bytes(long value) {
+        return Long.toString(value).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -1,20 +1,26 @@
 package com.example.kafka;
 
-import com.example.dto.OrderCompletedRequest;
+import com.example.client.ProductSnapshotCache;
+import com.example.config.KeyOrderedExecutor;
+import com.example.config.OrderMetrics;
+import com.example.dto.ProductChangedEvent;
 import com.example.dto.StockReleasedEvent;
 import com.example.dto.StockReservationFailedEvent;
 import com.example.dto.StockRevertEvent;
+import com.example.exception.OrderException;
 import com.example.service.OrderService;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.errors.SerializationException;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.kafka.support.serializer.SerializationUtils;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Component
 @RequiredArgsConstructor
@@ -22,62 +28,171 @@ import java.util.Map;
 public class OrderEventConsumer {
 
     private final OrderService orderService;
-    private final OrderEventProducer orderEventProducer;
-    private final ObjectMapper objectMapper;
-
+    private final ProductSnapshotCache productCache;
+    private final OrderMetrics orderMetrics;
+    private final KeyOrderedExecutor inventoryEventLanes;
+    private final InventoryEventRetryRouter retryRouter;
+    private final InventoryEventDeduplicator deduplicator;
+    private final ParkedOrders parkedOrders;
+
+    /**
+     * Handle one poll's worth of inventory events
+     *
+     * Order events are split across the lanes by orderId and each lane's share is applied
+     * in one transaction, in arrival order, in parallel with the other lanes. A lane whose
+     * transaction fails applies its events one by one instead; each event that still fails
+     * is forwarded to the retry topics, so one bad record never holds up the partition.
+     * That parks its order (ParkedOrders): every later event for it, in this poll or a
+     * later one, is forwarded behind it until its parked events are applied or dead-lettered.
+     * The container commits the offsets once every lane has finished. Records already
+     * processed before a redelivery are dropped up front by the deduplicator. Handling time
+     * per event type is recorded here for product changes and by OrderService for order events.
+     */
     @KafkaListener(
             topics = "${kafka.topic.inventory-events}",
             groupId = "${spring.kafka.consumer.group-id}",
             containerFactory = "kafkaListenerContainerFactory"
     )
-    public void handleInventoryEvents(
-            @Payload Map<String, Object> message,
-            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset
-    ) {
-        String eventType = (String) message.get("eventType");
-
-        log.info("Received event: {} from topic: {}, partition: {}, offset: {}",
-                eventType, topic, partition, offset);
-
-        switch (eventType) {
-            case "STOCK_RESERVATION_FAILED" -> handleStockReservationFailed(message);
-            case "STOCK_RELEASED"           -> handleStockReleased(message);
-            case "STOCK_REVERTED"           -> handleStockReverted(message);
-            default -> log.debug("Skipping unknown event type: {}", eventType);
+    public void handleInventoryEvents(List<ConsumerRecord<String, Object>> records) {
+        log.info("Received {} inventory events", records.size());
+
+        List<List<ConsumerRecord<String, Object>>> lanes = new ArrayList<>(inventoryEventLanes.laneCount());
+        for (int i = 0; i < inventoryEventLanes.laneCount(); i++) {
+            lanes.add(new ArrayList<>());
+        }
+        List<Long> failedReservations = new ArrayList<>();
+
+        for (ConsumerRecord<String, Object> record : records) {
+            if (deduplicator.isDuplicate(record)) {
+                continue;
+            }
+            log.debug("Received event: {} from topic: {}, partition: {}, offset: {}",
+                    record.value() != null ? record.value().getClass().getSimpleName() : null,
+                    record.topic(), record.partition(), record.offset());
+
+            // The deserializer has already bound each record to its event class
+            switch (record.value()) {
+                case StockReservationFailedEvent event -> {
+                    addToLane(lanes, event.getOrderId(), record);
+                    failedReservations.add(event.getOrderId());
+                }
+                case StockReleasedEvent event -> addToLane(lanes, event.getOrderId(), record);
+                case StockRevertEvent event -> addToLane(lanes, event.getOrderId(), record);
+                case ProductChangedEvent event -> handleProductChanged(event);
+                case null -> {
+                    if (record.headers().lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER) != null) {
+                        retryRouter.forward(record, new SerializationException("Undeserializable inventory event"));
+                    } else {
+                        log.debug("Skipping unknown event at offset: {}", record.offset());
+                    }
+                }
+                default -> log.debug("Skipping unknown event at offset: {}", record.offset());
+            }
+        }
+
+        // Our cached snapshots said there was enough stock for these orders — they are stale now
+        if (!failedReservations.isEmpty() && productCache.isEnabled()) {
+            productCache.invalidateAll(orderService.getProductIds(failedReservations));
         }
-    }
 
-    private void handleStockReservationFailed(Map<String, Object> message) {
-        StockReservationFailedEvent event = objectMapper.convertValue(message, StockReservationFailedEvent.class);
+        applyOnLanes(lanes);
+        deduplicator.markProcessed(records);
+    }
 
-        log.info("Handling StockReservationFailed for order: {}, reason: {}",
-                event.getOrderId(), event.getReason());
+    private void addToLane(List<List<ConsumerRecord<String, Object>>> lanes, Long orderId,
+                           ConsumerRecord<String, Object> record) {
+        lanes.get(inventoryEventLanes.laneOf(orderId)).add(record);
+    }
 
-        orderService.cancelOrder(event.getOrderId());
-        orderEventProducer.publishOrderCancelled(event.getOrderId());
+    private void applyOnLanes(List<List<ConsumerRecord<String, Object>>> lanes) {
+        List<CompletableFuture<Void>> applied = new ArrayList<>(lanes.size());
+        for (int lane = 0; lane < lanes.size(); lane++) {
+            List<ConsumerRecord<String, Object>> records = lanes.get(lane);
+            if (!records.isEmpty()) {
+                applied.add(inventoryEventLanes.submitToLane(lane, () -> applyLane(records)));
+            }
+        }
+        try {
+            // allOf waits for every lane, even after one has failed
+            CompletableFuture.allOf(applied.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 
-    private void handleStockReleased(Map<String, Object> message) {
-        StockReleasedEvent event = objectMapper.convertValue(message, StockReleasedEvent.class);
+    private void applyLane(List<ConsumerRecord<String, Object>> records) {
+        // Orders with events still on a retry topic: their new events queue up behind those
+        List<ConsumerRecord<String, Object>> ready = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, Object> record : records) {
+            if (parkedOrders.isParked(orderIdOf(record.value()))) {
+                holdBack(record);
+            } else {
+                ready.add(record);
+            }
+        }
+        if (ready.isEmpty()) {
+            return;
+        }
+
+        List<Object> events = new ArrayList<>(ready.size());
+        for (ConsumerRecord<String, Object> record : ready) {
+            events.add(record.value());
+        }
+        try {
+            orderService.applyInventoryEvents(events);
+            ready.forEach(deduplicator::markProcessed);
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Applying {} inventory events together failed ({}), applying them one by one",
+                    ready.size(), e.toString());
+        }
 
-        log.info("Handling StockReleased for order: {}", event.getOrderId());
+        for (ConsumerRecord<String, Object> record : ready) {
+            Long orderId = orderIdOf(record.value());
+            if (parkedOrders.isParked(orderId)) {
+                holdBack(record);
+                continue;
+            }
+            try {
+                orderService.applyInventoryEvents(List.of(record.value()));
+            } catch (RuntimeException e) {
+                park(record, orderId, e);
+            }
+            // Applied or safely on a retry topic: either way this offset is done
+            deduplicator.markProcessed(record);
+        }
+    }
 
-        OrderCompletedRequest request = OrderCompletedRequest.builder()
-                .orderId(event.getOrderId())
-                .userId(event.getUserId())
-                .build();
+    private void holdBack(ConsumerRecord<String, Object> record) {
+        Long orderId = orderIdOf(record.value());
+        park(record, orderId, new OrderException("Held back behind an earlier failed event for order: " + orderId));
+        deduplicator.markProcessed(record);
+    }
 
-        orderService.completeOrder(request);
+    private void park(ConsumerRecord<String, Object> record, Long orderId, Exception cause) {
+        if (retryRouter.forward(record, cause)) {
+            parkedOrders.park(orderId);
+        }
     }
 
-    private void handleStockReverted(Map<String, Object> message) {
-        StockRevertEvent event = objectMapper.convertValue(message, StockRevertEvent.class);
+    static Long orderIdOf(Object event) {
+        return switch (event) {
+            case StockReservationFailedEvent e -> e.getOrderId();
+            case StockReleasedEvent e -> e.getOrderId();
+            case StockRevertEvent e -> e.getOrderId();
+            default -> throw new IllegalArgumentException(
+                    "Unsupported inventory event: " + event.getClass().getName());
+        };
+    }
 
-        log.info("Handling StockReverted for order: {}, reason: {}",
-                event.getOrderId(), event.getReason());
+    private void handleProductChanged(ProductChangedEvent event) {
+        long start = System.nanoTime();
+        log.debug("Invalidating cached snapshot for product: {} ({})", event.getProductId(), event.getEventType());
 
-        orderService.revertStockForOrder(event.getOrderId(), event.getReason());
+        productCache.invalidate(event.getProductId());
+        orderMetrics.recordHandled("PRODUCT_CHANGED", start);
     }
-}
\ No newline at end of file
+}
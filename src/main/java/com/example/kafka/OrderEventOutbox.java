@@ -0,0 +1,156 @@
+package com.example.kafka;
+
+import com.example.dto.OrderCancelledEvent;
+import com.example.dto.OrderCompletedEvent;
+import com.example.dto.OrderCreatedEvent;
+import com.example.entities.OutboxEvent;
+import com.example.exception.OrderException;
+import com.example.kafka.codec.EventCodec;
+import com.example.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.errors.SerializationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records order events in the outbox table.
+ *
+ * Every method must run inside the caller's transaction, so an event exists if and
+ * only if the order change that produced it was committed. OutboxRelay takes care
+ * of getting the rows to Kafka.
+ *
+ * Payloads are encoded here with the configured EventCodec (kafka.producer.codec),
+ * once, and stored with their content type so the relay sends the bytes unchanged.
+ */
+@Component
+@Slf4j
+public class OrderEventOutbox {
+
+    private static final String INSERT_SQL =
+            "insert into outbox_events (aggregate_id, event_type, topic, payload, content_type, created_at) "
+                    + "values (?, ?, ?, ?, ?, ?)";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EventCodec eventCodec;
+    private final String orderEventsTopic;
+
+    public OrderEventOutbox(
+            OutboxEventRepository outboxEventRepository,
+            JdbcTemplate jdbcTemplate,
+            EventCodec eventCodec,
+            @Value("${kafka.topic.order-events:order-events}") String orderEventsTopic) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventCodec = eventCodec;
+        this.orderEventsTopic = orderEventsTopic;
+    }
+
+    /**
+     * Queue OrderCreated event
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderCreated(OrderCreatedEvent event) {
+        enqueue(event.getOrderId(), "ORDER_CREATED", event);
+    }
+
+    /**
+     * Queue OrderCreated events for a batch of orders
+     *
+     * OutboxEvent ids are IDENTITY, which Hibernate never batches, so the rows go in
+     * through one JDBC batch instead (a single multi-row INSERT with rewriteBatchedStatements).
+     * Same connection and transaction as the orders.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderCreated(List<OrderCreatedEvent> events) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (OrderCreatedEvent event : events) {
+            rows.add(row(event.getOrderId(), "ORDER_CREATED", event, now));
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        log.debug("Queued {} ORDER_CREATED events", rows.size());
+    }
+
+    /**
+     * Queue OrderCancelled event
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderCancelled(Long orderId) {
+        enqueue(orderId, "ORDER_CANCELLED", cancelled(orderId));
+    }
+
+    /**
+     * Queue OrderCompleted event
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderCompleted(Long orderId, Long userId) {
+        enqueue(orderId, "ORDER_COMPLETED", completed(orderId, userId));
+    }
+
+    /**
+     * Queue the status events of many orders (built with cancelled / completed) in one
+     * JDBC batch, in list order, for the same reason as orderCreated(List)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusChanged(List<?> events) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (Object event : events) {
+            rows.add(switch (event) {
+                case OrderCancelledEvent e -> row(e.getOrderId(), e.getEventType(), e, now);
+                case OrderCompletedEvent e -> row(e.getOrderId(), e.getEventType(), e, now);
+                default -> throw new IllegalArgumentException(
+                        "Not an order status event: " + event.getClass().getName());
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        log.debug("Queued {} order status events", rows.size());
+    }
+
+    public static OrderCancelledEvent cancelled(Long orderId) {
+        return OrderCancelledEvent.builder()
+                .orderId(orderId)
+                .eventType("ORDER_CANCELLED")
+                .build();
+    }
+
+    public static OrderCompletedEvent completed(Long orderId, Long userId) {
+        return OrderCompletedEvent.builder()
+                .orderId(orderId)
+                .userId(userId)
+                .eventType("ORDER_COMPLETED")
+                .build();
+    }
+
+    private void enqueue(Long orderId, String eventType, Object event) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateId(orderId)
+                .eventType(eventType)
+                .topic(orderEventsTopic)
+                .payload(encode(orderId, eventType, event))
+                .contentType(eventCodec.contentType())
+                .build());
+        log.debug("Queued {} event for order: {}", eventType, orderId);
+    }
+
+    private Object[] row(Long orderId, String eventType, Object event, Timestamp createdAt) {
+        return new Object[]{orderId, eventType, orderEventsTopic, encode(orderId, eventType, event),
+                eventCodec.contentType(), createdAt};
+    }
+
+    private byte[] encode(Long orderId, String eventType, Object event) {
+        try {
+            return eventCodec.encode(event);
+        } catch (SerializationException e) {
+            throw new OrderException("Failed to serialize " + eventType + " event for order: " + orderId);
+        }
+    }
+}
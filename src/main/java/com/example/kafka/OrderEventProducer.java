@@ -1,73 +1,73 @@
 package com.example.kafka;
 
-import com.example.dto.OrderCreatedEvent;
+import com.example.config.OrderMetrics;
+import com.example.entities.OutboxEvent;
+import com.example.kafka.codec.EventCodec;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @Component
 @Slf4j
 public class OrderEventProducer {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
-    private final String orderEventsTopic;
+    private final OrderMetrics orderMetrics;
 
-    public OrderEventProducer(
-            KafkaTemplate<String, Object> kafkaTemplate,
-            @Value("${kafka.topic.order-events:order-events}") String orderEventsTopic) {
+    public OrderEventProducer(KafkaTemplate<String, Object> kafkaTemplate, OrderMetrics orderMetrics) {
         this.kafkaTemplate = kafkaTemplate;
-        this.orderEventsTopic = orderEventsTopic;
+        this.orderMetrics = orderMetrics;
     }
 
     /**
-     * Publish OrderCreated event
+     * Publish an outbox row as-is
+     *
+     * The payload is already encoded, so it goes out as raw bytes rather than being
+     * serialized a second time. The contentType header tells consumers which codec wrote it.
+     *
+     * Keyed by orderId: one order's events land on one partition, in order, while
+     * different orders spread across all partitions.
      */
-    public void publishOrderCreated(OrderCreatedEvent event) {
-        log.info("Publishing OrderCreated event for order: {}", event.getOrderId());
-
-        kafkaTemplate.send(orderEventsTopic, "ORDER_CREATED", event)
+    public CompletableFuture<SendResult<String, Object>> send(OutboxEvent event) {
+        long start = System.nanoTime();
+        List<Header> headers = List.of(
+                new RecordHeader(EventCodec.EVENT_TYPE_HEADER,
+                        event.getEventType().getBytes(StandardCharsets.UTF_8)),
+                new RecordHeader(EventCodec.CONTENT_TYPE_HEADER,
+                        event.getContentType().getBytes(StandardCharsets.UTF_8)));
+        return kafkaTemplate.send(new ProducerRecord<>(
+                        event.getTopic(),
+                        null,
+                        String.valueOf(event.getAggregateId()),
+                        event.getPayload(),
+                        headers))
                 .whenComplete((result, ex) -> {
                     if (ex != null) {
-                        log.error("❌ Failed to publish OrderCreated event for order: {}. Error: {}",
-                                event.getOrderId(), ex.getMessage(), ex);
+                        log.error("❌ Failed to publish {} event for order: {}. Error: {}",
+                                event.getEventType(), event.getAggregateId(), ex.getMessage());
                     } else {
-                        log.info("✅ OrderCreated event published — topic: {}, partition: {}, offset: {}",
-                                result.getRecordMetadata().topic(),
+                        orderMetrics.recordSend(event.getEventType(), start);
+                        log.debug("✅ {} event published for order: {} — partition: {}, offset: {}",
+                                event.getEventType(),
+                                event.getAggregateId(),
                                 result.getRecordMetadata().partition(),
                                 result.getRecordMetadata().offset());
                     }
                 });
     }
 
-    public void publishOrderCancelled(Long orderId) {
-        log.info("Publishing OrderCancelled event for order: {}", orderId);
-        String event = String.format("{\"orderId\": %d, \"eventType\": \"ORDER_CANCELLED\"}", orderId);
-
-        kafkaTemplate.send(orderEventsTopic, "ORDER_CANCELLED", event)
-                .whenComplete((result, ex) -> {
-                    if (ex != null) {
-                        log.error("❌ Failed to publish OrderCancelled for order: {}. Error: {}",
-                                orderId, ex.getMessage(), ex);
-                    } else {
-                        log.info("✅ OrderCancelled event published for order: {}", orderId);
-                    }
-                });
-    }
-
-    public void publishOrderCompleted(Long orderId, Long userId) {
-        log.info("Publishing OrderCompleted event for order: {}", orderId);
-        String event = String.format("{\"orderId\": %d, \"userId\": %d, \"eventType\": \"ORDER_COMPLETED\"}",
-                orderId, userId);
-
-        kafkaTemplate.send(orderEventsTopic, "ORDER_COMPLETED", event)
-                .whenComplete((result, ex) -> {
-                    if (ex != null) {
-                        log.error("❌ Failed to publish OrderCompleted for order: {}. Error: {}",
-                                orderId, ex.getMessage(), ex);
-                    } else {
-                        log.info("✅ OrderCompleted event published for order: {}", orderId);
-                    }
-                });
+    /**
+     * Push out anything the producer is still lingering on
+     */
+    public void flush() {
+        kafkaTemplate.flush();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,183 @@
+package com.example.kafka;
+
+import com.example.entities.OutboxEvent;
+import com.example.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the outbox table to Kafka.
+ *
+ * Each run reads unsent rows oldest-first in batches and sends them in rounds: a round
+ * holds the oldest unsent row of every order in the batch, goes out without waiting in
+ * between, and is awaited as a whole. The acknowledged rows are marked sent with one UPDATE.
+ * Delivery is at-least-once: a crash between the send and the UPDATE re-sends the batch.
+ *
+ * Per-order ordering: an order's next row is only sent once the broker acknowledged the
+ * previous one. Once a row fails, the order's later rows in the batch are not sent at all
+ * and are retried behind it on the next run. Rows are read without being claimed, so only
+ * the instance holding the OutboxRelayLease relays; the others skip their runs.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OrderEventProducer orderEventProducer;
+    private final OutboxRelayLease lease;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final long retentionHours;
+
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    // Age of the oldest unsent row seen by the last run, in milliseconds
+    private volatile long lagMs;
+
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            OrderEventProducer orderEventProducer,
+            OutboxRelayLease lease,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.relay.batch-size:200}") int batchSize,
+            @Value("${outbox.relay.send-timeout-ms:10000}") long sendTimeoutMs,
+            @Value("${outbox.retention-hours:24}") long retentionHours) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.orderEventProducer = orderEventProducer;
+        this.lease = lease;
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.retentionHours = retentionHours;
+
+        this.sentCounter = Counter.builder("outbox.relay.events")
+                .tag("result", "sent")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.relay.events")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Time to publish one outbox batch and mark it sent")
+                .register(meterRegistry);
+        Gauge.builder("outbox.relay.lag", this, relay -> relay.lagMs)
+                .description("Age of the oldest unsent outbox event")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:500}")
+    public void relay() {
+        // Keep going while batches come back full, so a backlog drains in one run;
+        // the lease is renewed before each batch
+        int relayed;
+        do {
+            if (!lease.tryAcquire()) {
+                return;
+            }
+            relayed = batchTimer.record(this::relayBatch);
+        } while (relayed == batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.cleanup-interval-ms:3600000}")
+    public void deleteSentEvents() {
+        int deleted = outboxEventRepository.deleteSentBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (deleted > 0) {
+            log.info("Deleted {} sent outbox events older than {}h", deleted, retentionHours);
+        }
+    }
+
+    /**
+     * Publish one batch; returns how many rows were read
+     */
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findBySentAtIsNullOrderByIdAsc(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            lagMs = 0;
+            return 0;
+        }
+        lagMs = Duration.between(batch.get(0).getCreatedAt(), LocalDateTime.now()).toMillis();
+
+        // Each order's rows in id order; most orders have a single row per batch
+        Map<Long, Deque<OutboxEvent>> pending = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            pending.computeIfAbsent(event.getAggregateId(), id -> new ArrayDeque<>()).add(event);
+        }
+
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        boolean failed = false;
+        while (!pending.isEmpty()) {
+            List<OutboxEvent> round = new ArrayList<>(pending.size());
+            for (Deque<OutboxEvent> rows : pending.values()) {
+                round.add(rows.peekFirst());
+            }
+            List<CompletableFuture<?>> sends = new ArrayList<>(round.size());
+            for (OutboxEvent event : round) {
+                sends.add(orderEventProducer.send(event));
+            }
+            orderEventProducer.flush();
+
+            // One deadline for the whole round, not one per record
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+            for (int i = 0; i < round.size(); i++) {
+                OutboxEvent event = round.get(i);
+                Deque<OutboxEvent> rows = pending.get(event.getAggregateId());
+                if (awaitSend(sends.get(i), deadline)) {
+                    sentIds.add(event.getId());
+                    rows.pollFirst();
+                    if (rows.isEmpty()) {
+                        pending.remove(event.getAggregateId());
+                    }
+                } else {
+                    // The order's later rows stay unsent, behind this one
+                    pending.remove(event.getAggregateId());
+                    failed = true;
+                }
+            }
+        }
+
+        if (!sentIds.isEmpty()) {
+            outboxEventRepository.markSent(sentIds, LocalDateTime.now());
+        }
+        sentCounter.increment(sentIds.size());
+        failedCounter.increment(batch.size() - sentIds.size());
+
+        if (failed) {
+            log.warn("Outbox relay: {} of {} events not acknowledged, will retry", batch.size() - sentIds.size(),
+                    batch.size());
+            // Stop this run so the failed rows are retried first next time
+            return 0;
+        }
+        return batch.size();
+    }
+
+    private boolean awaitSend(CompletableFuture<?> send, long deadline) {
+        try {
+            send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.kafka;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Lease that makes one instance at a time the outbox relay.
+ *
+ * The holder renews it before every batch; anyone may take it once it has expired. Each
+ * acquire or renewal is one conditional UPDATE of the outbox_relay_lease row, so two
+ * instances can't both win it. Expiry compares the instances' own clocks, which must be
+ * in step to well within the lease length. If the holder stalls for longer than the lease,
+ * the next holder may re-send (and reorder) what it was still sending — at-least-once, as
+ * for a crash.
+ */
+@Component
+@Slf4j
+public class OutboxRelayLease {
+
+    private static final String NAME = "outbox-relay";
+    private static final String RENEW_SQL = "update outbox_relay_lease set owner = ?, expires_at = ? " +
+            "where name = ? and (owner = ? or expires_at < ?)";
+    private static final String RELEASE_SQL = "update outbox_relay_lease set owner = null, expires_at = ? " +
+            "where name = ? and owner = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long leaseMs;
+    private final String owner = UUID.randomUUID().toString();
+
+    private volatile boolean held;
+
+    public OutboxRelayLease(
+            JdbcTemplate jdbcTemplate,
+            @Value("${outbox.relay.lease-ms:30000}") long leaseMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.leaseMs = leaseMs;
+    }
+
+    /**
+     * Take the lease, or renew it if we already hold it; false while another instance does
+     */
+    public boolean tryAcquire() {
+        long now = System.currentTimeMillis();
+        boolean acquired = jdbcTemplate.update(RENEW_SQL, owner, new Timestamp(now + leaseMs), NAME, owner,
+                new Timestamp(now)) == 1;
+        if (acquired != held) {
+            log.info(acquired ? "Now relaying the outbox ({})" : "No longer relaying the outbox ({})", owner);
+            held = acquired;
+        }
+        return acquired;
+    }
+
+    /**
+     * Hand the lease over on shutdown rather than leaving it to expire
+     */
+    @PreDestroy
+    public void release() {
+        if (held) {
+            jdbcTemplate.update(RELEASE_SQL, new Timestamp(0), NAME, owner);
+            held = false;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.kafka;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Orders with inventory events waiting on the retry topics.
+ *
+ * An order is parked from the moment one of its events is forwarded to a retry topic
+ * until every event forwarded for it has been applied from a retry topic or dead-lettered.
+ * While it is parked, the main listener forwards its new events too, whichever poll they
+ * arrive in, so they queue up behind the earlier ones instead of overtaking them.
+ *
+ * Kept in memory: after a restart or a rebalance an order's parked events are forgotten,
+ * and its next event on the main topic may be applied before them.
+ */
+@Component
+public class ParkedOrders {
+
+    // Events of the order currently on a retry topic; orders with none are not in the map
+    private final ConcurrentHashMap<Long, Integer> waiting = new ConcurrentHashMap<>();
+
+    public boolean isParked(Long orderId) {
+        return waiting.containsKey(orderId);
+    }
+
+    /**
+     * One more event of the order went from the main topic to a retry topic
+     */
+    public void park(Long orderId) {
+        waiting.merge(orderId, 1, Integer::sum);
+    }
+
+    /**
+     * One of the order's parked events was applied or dead-lettered
+     */
+    public void release(Long orderId) {
+        waiting.computeIfPresent(orderId, (id, events) -> events > 1 ? events - 1 : null);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.kafka;
+
+import java.util.BitSet;
+
+/**
+ * Processed offsets of one partition: a high-water mark plus a bounded bitset above it.
+ *
+ * Every offset below base is processed. Offsets in [base, base + size) are tracked one
+ * bit each, so records finished out of order (on different lanes) are remembered too;
+ * base moves up as soon as the bits above it are contiguous. Marks beyond the window are
+ * dropped, which only means such a record could be processed twice, never skipped.
+ */
+class ProcessedOffsetWindow {
+
+    private final int size;
+    private BitSet done;
+    private long base;
+    private boolean dirty;
+
+    ProcessedOffsetWindow(int size, long base) {
+        this.size = size;
+        this.base = base;
+        this.done = new BitSet();
+    }
+
+    synchronized boolean isProcessed(long offset) {
+        if (offset < base) {
+            return true;
+        }
+        long index = offset - base;
+        return index < size && done.get((int) index);
+    }
+
+    synchronized void markProcessed(long offset) {
+        long index = offset - base;
+        if (index < 0 || index >= size) {
+            return;
+        }
+        done.set((int) index);
+        int contiguous = done.nextClearBit(0);
+        if (contiguous > 0) {
+            done = done.get(contiguous, Math.max(contiguous, done.length()));
+            base += contiguous;
+            dirty = true;
+        }
+    }
+
+    /**
+     * Everything below nextOffset is processed, including offsets with no record (gaps)
+     */
+    synchronized void advanceTo(long nextOffset) {
+        if (nextOffset <= base) {
+            return;
+        }
+        long shift = nextOffset - base;
+        done = shift < done.length() ? done.get((int) shift, done.length()) : new BitSet();
+        base = nextOffset;
+        dirty = true;
+    }
+
+    synchronized long base() {
+        return base;
+    }
+
+    /**
+     * The base to persist, or -1 if it hasn't moved since the last call
+     */
+    synchronized long takeDirtyBase() {
+        if (!dirty) {
+            return -1;
+        }
+        dirty = false;
+        return base;
+    }
+}
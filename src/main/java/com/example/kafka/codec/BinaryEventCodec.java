@@ -0,0 +1,358 @@
+package com.example.kafka.codec;
+
+import com.example.dto.OrderCancelledEvent;
+import com.example.dto.OrderCompletedEvent;
+import com.example.dto.OrderCreatedEvent;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact, schema-versioned binary encoding of the order events we publish.
+ *
+ * Layout: format byte, event tag, schema version, then the event's fields in a fixed
+ * order. Every record (the event and each order item) starts with a varint bitmask of
+ * the fields that are set; null fields take no bytes. Integers are zig-zag varints,
+ * strings are length-prefixed UTF-8, decimals are an unscaled varint plus their scale,
+ * and timestamps are epoch seconds and nanos (LocalDateTime is taken as UTC).
+ *
+ * Evolution: new fields are only ever appended, with the next presence bit, and the
+ * event's schema version is bumped. Items are length-prefixed, so a reader skips
+ * appended item fields and ignores trailing event bytes it does not know, and a
+ * payload with an older version simply leaves the newer fields null. Anything that
+ * can't follow those rules needs a new format byte.
+ */
+public class BinaryEventCodec implements EventCodec {
+
+    public static final String CONTENT_TYPE = "application/vnd.order-event+binary";
+
+    private static final int FORMAT = 1;
+
+    private static final int ORDER_CREATED = 1;
+    private static final int ORDER_CANCELLED = 2;
+    private static final int ORDER_COMPLETED = 3;
+
+    private static final int ORDER_CREATED_VERSION = 1;
+    private static final int ORDER_CANCELLED_VERSION = 1;
+    private static final int ORDER_COMPLETED_VERSION = 1;
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] encode(Object event) {
+        Writer out = new Writer(128);
+        out.writeByte(FORMAT);
+        switch (event) {
+            case OrderCreatedEvent created -> {
+                out.writeByte(ORDER_CREATED);
+                out.writeByte(ORDER_CREATED_VERSION);
+                writeOrderCreated(out, created);
+            }
+            case OrderCancelledEvent cancelled -> {
+                out.writeByte(ORDER_CANCELLED);
+                out.writeByte(ORDER_CANCELLED_VERSION);
+                out.writeVarLong(presence(cancelled.getOrderId()));
+                out.writeLong(cancelled.getOrderId());
+            }
+            case OrderCompletedEvent completed -> {
+                out.writeByte(ORDER_COMPLETED);
+                out.writeByte(ORDER_COMPLETED_VERSION);
+                out.writeVarLong(presence(completed.getOrderId(), completed.getUserId()));
+                out.writeLong(completed.getOrderId());
+                out.writeLong(completed.getUserId());
+            }
+            default -> throw new SerializationException(
+                    "No binary schema for " + event.getClass().getName());
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * The event type is part of the payload, so the header is not needed here
+     */
+    @Override
+    public Object decode(byte[] data, String eventType) {
+        Reader in = new Reader(data, 0, data.length);
+        int format = in.readByte();
+        if (format != FORMAT) {
+            throw new SerializationException("Unsupported binary event format: " + format);
+        }
+        int tag = in.readByte();
+        int version = in.readByte();
+        if (version < 1) {
+            throw new SerializationException("Invalid schema version " + version + " for event tag " + tag);
+        }
+        return switch (tag) {
+            case ORDER_CREATED -> readOrderCreated(in);
+            case ORDER_CANCELLED -> {
+                long fields = in.readVarLong();
+                yield OrderCancelledEvent.builder()
+                        .orderId(isSet(fields, 0) ? in.readLong() : null)
+                        .eventType("ORDER_CANCELLED")
+                        .build();
+            }
+            case ORDER_COMPLETED -> {
+                long fields = in.readVarLong();
+                yield OrderCompletedEvent.builder()
+                        .orderId(isSet(fields, 0) ? in.readLong() : null)
+                        .userId(isSet(fields, 1) ? in.readLong() : null)
+                        .eventType("ORDER_COMPLETED")
+                        .build();
+            }
+            // An event type added after this build — skip it like unknown JSON types
+            default -> null;
+        };
+    }
+
+    private static void writeOrderCreated(Writer out, OrderCreatedEvent event) {
+        List<OrderCreatedEvent.OrderItemDto> items = event.getItems();
+        out.writeVarLong(presence(event.getOrderId(), event.getUserId(), items, event.getTotalAmount(),
+                event.getShippingAddress(), event.getCreatedAt()));
+        out.writeLong(event.getOrderId());
+        out.writeLong(event.getUserId());
+        if (items != null) {
+            out.writeVarLong(items.size());
+            Writer item = new Writer(64);
+            for (OrderCreatedEvent.OrderItemDto dto : items) {
+                item.reset();
+                item.writeVarLong(presence(dto.getProductId(), dto.getProductName(), dto.getProductSku(),
+                        dto.getQuantity(), dto.getPrice()));
+                item.writeLong(dto.getProductId());
+                item.writeString(dto.getProductName());
+                item.writeString(dto.getProductSku());
+                item.writeLong(dto.getQuantity() != null ? dto.getQuantity().longValue() : null);
+                item.writeDecimal(dto.getPrice());
+                out.writeBytes(item.buf, item.pos);
+            }
+        }
+        out.writeDecimal(event.getTotalAmount());
+        out.writeString(event.getShippingAddress());
+        out.writeTimestamp(event.getCreatedAt());
+    }
+
+    private static OrderCreatedEvent readOrderCreated(Reader in) {
+        long fields = in.readVarLong();
+        OrderCreatedEvent.OrderCreatedEventBuilder event = OrderCreatedEvent.builder()
+                .orderId(isSet(fields, 0) ? in.readLong() : null)
+                .userId(isSet(fields, 1) ? in.readLong() : null);
+        if (isSet(fields, 2)) {
+            int count = in.readLength();
+            List<OrderCreatedEvent.OrderItemDto> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Reader item = in.slice(in.readLength());
+                long itemFields = item.readVarLong();
+                items.add(OrderCreatedEvent.OrderItemDto.builder()
+                        .productId(isSet(itemFields, 0) ? item.readLong() : null)
+                        .productName(isSet(itemFields, 1) ? item.readString() : null)
+                        .productSku(isSet(itemFields, 2) ? item.readString() : null)
+                        .quantity(isSet(itemFields, 3) ? Math.toIntExact(item.readLong()) : null)
+                        .price(isSet(itemFields, 4) ? item.readDecimal() : null)
+                        .build());
+            }
+            event.items(items);
+        }
+        return event
+                .totalAmount(isSet(fields, 3) ? in.readDecimal() : null)
+                .shippingAddress(isSet(fields, 4) ? in.readString() : null)
+                .createdAt(isSet(fields, 5) ? in.readTimestamp() : null)
+                .eventType("ORDER_CREATED")
+                .build();
+    }
+
+    private static long presence(Object... fields) {
+        long bits = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] != null) {
+                bits |= 1L << i;
+            }
+        }
+        return bits;
+    }
+
+    private static boolean isSet(long fields, int bit) {
+        return (fields & (1L << bit)) != 0;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Growable byte buffer; the nullable write methods skip null values, matching the presence bits
+     */
+    private static final class Writer {
+
+        private byte[] buf;
+        private int pos;
+
+        Writer(int initialCapacity) {
+            this.buf = new byte[initialCapacity];
+        }
+
+        void reset() {
+            pos = 0;
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buf[pos++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[pos++] = (byte) value;
+        }
+
+        void writeLong(Long value) {
+            if (value != null) {
+                writeVarLong(zigZag(value));
+            }
+        }
+
+        void writeBytes(byte[] bytes, int length) {
+            writeVarLong(length);
+            ensureCapacity(length);
+            System.arraycopy(bytes, 0, buf, pos, length);
+            pos += length;
+        }
+
+        void writeString(String value) {
+            if (value != null) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeBytes(bytes, bytes.length);
+            }
+        }
+
+        /**
+         * Scale and a "big" flag share the first varint; the unscaled value follows as a
+         * varint when it fits in a long (every realistic price) or as two's-complement bytes
+         */
+        void writeDecimal(BigDecimal value) {
+            if (value == null) {
+                return;
+            }
+            BigInteger unscaled = value.unscaledValue();
+            boolean fitsLong = unscaled.bitLength() < Long.SIZE;
+            writeVarLong(zigZag(value.scale()) << 1 | (fitsLong ? 0 : 1));
+            if (fitsLong) {
+                writeVarLong(zigZag(unscaled.longValue()));
+            } else {
+                byte[] bytes = unscaled.toByteArray();
+                writeBytes(bytes, bytes.length);
+            }
+        }
+
+        void writeTimestamp(LocalDateTime value) {
+            if (value != null) {
+                writeVarLong(zigZag(value.toEpochSecond(ZoneOffset.UTC)));
+                writeVarLong(value.getNano());
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (pos + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+            }
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] buf;
+        private final int limit;
+        private int pos;
+
+        Reader(byte[] buf, int pos, int limit) {
+            this.buf = buf;
+            this.pos = pos;
+            this.limit = limit;
+        }
+
+        int readByte() {
+            if (pos >= limit) {
+                throw new SerializationException("Truncated binary event");
+            }
+            return buf[pos++] & 0xFF;
+        }
+
+        long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                int b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new SerializationException("Malformed varint in binary event");
+        }
+
+        long readLong() {
+            return unZigZag(readVarLong());
+        }
+
+        int readLength() {
+            long length = readVarLong();
+            if (length > limit - pos) {
+                throw new SerializationException("Truncated binary event");
+            }
+            return (int) length;
+        }
+
+        String readString() {
+            int length = readLength();
+            String value = new String(buf, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+
+        BigDecimal readDecimal() {
+            long head = readVarLong();
+            int scale = Math.toIntExact(unZigZag(head >>> 1));
+            if ((head & 1) == 0) {
+                return BigDecimal.valueOf(readLong(), scale);
+            }
+            int length = readLength();
+            BigInteger unscaled = new BigInteger(buf, pos, length);
+            pos += length;
+            return new BigDecimal(unscaled, scale);
+        }
+
+        LocalDateTime readTimestamp() {
+            long seconds = readLong();
+            int nanos = Math.toIntExact(readVarLong());
+            return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+        }
+
+        /**
+         * A reader over the next length bytes; this reader moves past them whatever the slice reads
+         */
+        Reader slice(int length) {
+            Reader slice = new Reader(buf, pos, pos + length);
+            pos += length;
+            return slice;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.kafka.codec;
+
+/**
+ * Wire format for events on Kafka.
+ *
+ * Producers stamp each record with the codec's content type in the "contentType" header.
+ * Consumers pick the codec from that header and fall back to JSON when it is missing, so
+ * records written before the header existed (and JSON-only producers) keep working.
+ */
+public interface EventCodec {
+
+    String CONTENT_TYPE_HEADER = "contentType";
+    String EVENT_TYPE_HEADER = "eventType";
+
+    String contentType();
+
+    byte[] encode(Object event);
+
+    /**
+     * @param eventType value of the "eventType" header, or null when the record has none
+     * @return the bound event, or null when this codec has no mapping for its type
+     */
+    Object decode(byte[] data, String eventType);
+}
@@ -0,0 +1,102 @@
+package com.example.kafka.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Plain Jackson JSON, the format every existing consumer understands.
+ *
+ * Decoding binds straight to the class registered for the event type. Without an
+ * "eventType" header the type comes from a streaming peek at the top-level "eventType"
+ * field (other fields are skipped token by token, no tree is built).
+ */
+public class JsonEventCodec implements EventCodec {
+
+    public static final String CONTENT_TYPE = "application/json";
+
+    private static final String EVENT_TYPE_FIELD = "eventType";
+
+    private final ObjectMapper objectMapper;
+    private final JsonFactory jsonFactory;
+    private final Map<String, ObjectReader> readers = new HashMap<>();
+
+    public JsonEventCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper
+                .copy()
+                // ✅ never crash on unknown fields — critical for microservices
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.jsonFactory = this.objectMapper.getFactory();
+    }
+
+    /**
+     * Map event types to the class they are decoded into; call before first use
+     */
+    public JsonEventCodec register(Class<?> type, String... eventTypes) {
+        ObjectReader reader = objectMapper.readerFor(type);
+        for (String eventType : eventTypes) {
+            readers.put(eventType, reader);
+        }
+        return this;
+    }
+
+    @Override
+    public String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] encode(Object event) {
+        try {
+            return objectMapper.writeValueAsBytes(event);
+        } catch (JsonProcessingException e) {
+            throw new SerializationException("Error serializing " + event.getClass().getSimpleName() + " to JSON", e);
+        }
+    }
+
+    @Override
+    public Object decode(byte[] data, String eventType) {
+        try {
+            if (eventType == null) {
+                eventType = peekEventType(data);
+            }
+            ObjectReader reader = eventType != null ? readers.get(eventType) : null;
+            if (reader == null) {
+                // Not an event we handle — skip it without binding
+                return null;
+            }
+            return reader.readValue(data);
+        } catch (IOException e) {
+            throw new SerializationException("Error deserializing JSON event", e);
+        }
+    }
+
+    /**
+     * Read just far enough into the object to find "eventType"
+     */
+    private String peekEventType(byte[] data) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(data)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (EVENT_TYPE_FIELD.equals(field)) {
+                    return value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                }
+                parser.skipChildren();
+            }
+            return null;
+        }
+    }
+}
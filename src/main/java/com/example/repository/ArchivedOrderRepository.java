@@ -0,0 +1,63 @@
+package com.example.repository;
+
+import com.example.dto.OrderItemResponse;
+import com.example.entities.ArchivedOrder;
+import com.example.enums.OrderStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    @Query("select new com.example.dto.OrderItemResponse(i.orderId, i.productId, i.productName, " +
+            "i.productSku, i.quantity, i.priceAtOrder, i.subtotal) " +
+            "from ArchivedOrderItem i where i.orderId in :orderIds order by i.id")
+    List<OrderItemResponse> findItemsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    // ── Keyset pagination on (userId, createdAt, orderId), newest first ──
+
+    List<ArchivedOrder> findByUserIdOrderByCreatedAtDescOrderIdDesc(Long userId, Pageable pageable);
+
+    @Query("select a from ArchivedOrder a " +
+            "where a.userId = :userId " +
+            "and (a.createdAt < :createdAt or (a.createdAt = :createdAt and a.orderId < :orderId)) " +
+            "order by a.createdAt desc, a.orderId desc")
+    List<ArchivedOrder> findPageByUserIdBefore(@Param("userId") Long userId,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("orderId") Long orderId,
+                                               Pageable pageable);
+
+    /**
+     * createdAt of the newest archived order, null while the archive is empty
+     */
+    @Query("select max(a.createdAt) from ArchivedOrder a")
+    LocalDateTime findNewestCreatedAt();
+
+    // ── Archiving: copy a batch of orders with one INSERT ... SELECT per table ──
+
+    @Modifying
+    @Query("insert into ArchivedOrder (orderId, userId, status, totalAmount, shippingAddress, " +
+            "createdAt, updatedAt, archivedAt) " +
+            "select o.orderId, o.userId, o.status, o.totalAmount, o.shippingAddress, " +
+            "o.createdAt, o.updatedAt, local datetime from Order o " +
+            "where o.orderId in :orderIds and o.status in :statuses")
+    int copyOrders(@Param("orderIds") Collection<Long> orderIds,
+                   @Param("statuses") Collection<OrderStatus> statuses);
+
+    @Modifying
+    @Query("insert into ArchivedOrderItem (id, orderId, orderCreatedAt, productId, productName, productSku, " +
+            "quantity, priceAtOrder, subtotal) " +
+            "select i.id, o.orderId, o.createdAt, i.productId, i.productName, i.productSku, " +
+            "i.quantity, i.priceAtOrder, i.subtotal from OrderItem i join i.order o " +
+            "where o.orderId in :orderIds and o.status in :statuses")
+    int copyItems(@Param("orderIds") Collection<Long> orderIds,
+                  @Param("statuses") Collection<OrderStatus> statuses);
+}
@@ -0,0 +1,33 @@
+package com.example.repository;
+
+import com.example.entities.OrderIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface OrderIdempotencyKeyRepository extends JpaRepository<OrderIdempotencyKey, String> {
+
+    /**
+     * Always an INSERT (save() would merge into a row another instance just committed),
+     * so a key that is already taken fails with DataIntegrityViolationException
+     */
+    @Transactional
+    @Modifying
+    @Query("insert into OrderIdempotencyKey (idempotencyKey, orderId, requestHash, createdAt) " +
+            "values (:idempotencyKey, :orderId, :requestHash, :now)")
+    int insert(@Param("idempotencyKey") String idempotencyKey,
+               @Param("orderId") Long orderId,
+               @Param("requestHash") String requestHash,
+               @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OrderIdempotencyKey k where k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,47 @@
+package com.example.repository;
+
+import com.example.entities.OrderIntake;
+import com.example.enums.IntakeStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderIntakeRepository extends JpaRepository<OrderIntake, String> {
+
+    Optional<OrderIntake> findByIdempotencyKey(String idempotencyKey);
+
+    List<OrderIntake> findByStatusAndUpdatedAtBeforeOrderByAcceptedAt(
+            IntakeStatus status, LocalDateTime updatedBefore, Pageable pageable);
+
+    /**
+     * ACCEPTED -> PROCESSING; returns 0 if another worker already claimed the intake
+     */
+    @Transactional
+    @Modifying
+    @Query("update OrderIntake i set i.status = com.example.enums.IntakeStatus.PROCESSING, i.updatedAt = :now " +
+            "where i.intakeId = :intakeId and i.status = com.example.enums.IntakeStatus.ACCEPTED")
+    int claim(@Param("intakeId") String intakeId, @Param("now") LocalDateTime now);
+
+    /**
+     * from -> status; returns 0 if the intake has moved on from `from` in the meantime
+     */
+    @Transactional
+    @Modifying
+    @Query("update OrderIntake i set i.status = :status, i.orderId = :orderId, i.failureReason = :failureReason, " +
+            "i.updatedAt = :now where i.intakeId = :intakeId and i.status = :from")
+    int updateStatus(@Param("intakeId") String intakeId,
+                     @Param("from") IntakeStatus from,
+                     @Param("status") IntakeStatus status,
+                     @Param("orderId") Long orderId,
+                     @Param("failureReason") String failureReason,
+                     @Param("now") LocalDateTime now);
+}
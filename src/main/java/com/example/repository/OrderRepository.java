@@ -1,12 +1,123 @@
 package com.example.repository;
 
+import com.example.dto.OrderCursor;
+import com.example.dto.OrderItemResponse;
 import com.example.entities.Order;
+import com.example.enums.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     public Order findByOrderId(Long orderId);
 
-    Iterable<Order> findByUserId(Long userId);
+    @EntityGraph(attributePaths = "orderItems")
+    Optional<Order> findWithItemsByOrderId(Long orderId);
+
+    /**
+     * The lines of a page of orders in one query, straight into read DTOs
+     */
+    @Query("select new com.example.dto.OrderItemResponse(i.order.orderId, i.productId, i.productName, " +
+            "i.productSku, i.quantity, i.priceAtOrder, i.subtotal) " +
+            "from OrderItem i where i.order.orderId in :orderIds order by i.id")
+    List<OrderItemResponse> findItemsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("select o.status from Order o where o.orderId = :orderId")
+    Optional<OrderStatus> findStatusByOrderId(@Param("orderId") Long orderId);
+
+    /**
+     * Move an order to a new status in one statement, only if it is currently in one of
+     * the given statuses. Returns the number of rows changed (0 or 1); the status check
+     * and the write are atomic, so concurrent consumers can't overwrite each other.
+     */
+    @Modifying
+    @Query("update Order o set o.status = :to, o.updatedAt = :now, o.version = o.version + 1 " +
+            "where o.orderId = :orderId and o.status in :from")
+    int updateStatusIfIn(@Param("orderId") Long orderId,
+                         @Param("from") Collection<OrderStatus> from,
+                         @Param("to") OrderStatus to,
+                         @Param("now") LocalDateTime now);
+
+    @Query("select distinct i.productId from OrderItem i where i.order.orderId in :orderIds")
+    List<Long> findProductIdsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    // ── Keyset pagination, newest first: (createdAt desc, orderId desc) ──
+
+    List<Order> findAllByOrderByCreatedAtDescOrderIdDesc(Pageable pageable);
+
+    @Query("select o from Order o " +
+            "where o.createdAt < :createdAt or (o.createdAt = :createdAt and o.orderId < :orderId) " +
+            "order by o.createdAt desc, o.orderId desc")
+    List<Order> findPageBefore(@Param("createdAt") LocalDateTime createdAt,
+                               @Param("orderId") Long orderId,
+                               Pageable pageable);
+
+    List<Order> findByUserIdOrderByCreatedAtDescOrderIdDesc(Long userId, Pageable pageable);
+
+    @Query("select o from Order o " +
+            "where o.userId = :userId " +
+            "and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.orderId < :orderId)) " +
+            "order by o.createdAt desc, o.orderId desc")
+    List<Order> findPageByUserIdBefore(@Param("userId") Long userId,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("orderId") Long orderId,
+                                       Pageable pageable);
+
+    /**
+     * Every order with its items, streamed row by row for export.
+     * Items are fetch-joined so no second query runs while the stream is open;
+     * Integer.MIN_VALUE tells MySQL Connector/J to stream instead of buffering the result.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select o from Order o left join fetch o.orderItems order by o.orderId")
+    Stream<Order> streamAllWithItems();
+
+    // ── Archiving: finished orders older than a cutoff, oldest first on (createdAt, orderId) ──
+
+    @Query("select new com.example.dto.OrderCursor(o.createdAt, o.orderId) from Order o " +
+            "where o.createdAt < :cutoff and o.status in :statuses " +
+            "order by o.createdAt, o.orderId")
+    List<OrderCursor> findArchivable(@Param("cutoff") LocalDateTime cutoff,
+                                     @Param("statuses") Collection<OrderStatus> statuses,
+                                     Pageable pageable);
+
+    @Query("select new com.example.dto.OrderCursor(o.createdAt, o.orderId) from Order o " +
+            "where o.createdAt < :cutoff and o.status in :statuses " +
+            "and (o.createdAt > :createdAt or (o.createdAt = :createdAt and o.orderId > :orderId)) " +
+            "order by o.createdAt, o.orderId")
+    List<OrderCursor> findArchivableAfter(@Param("cutoff") LocalDateTime cutoff,
+                                          @Param("statuses") Collection<OrderStatus> statuses,
+                                          @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("orderId") Long orderId,
+                                          Pageable pageable);
+
+    @Modifying
+    @Query("delete from OrderItem i where i.order in " +
+            "(select o from Order o where o.orderId in :orderIds and o.status in :statuses)")
+    int deleteItemsOfOrders(@Param("orderIds") Collection<Long> orderIds,
+                            @Param("statuses") Collection<OrderStatus> statuses);
+
+    @Modifying
+    @Query("delete from Order o where o.orderId in :orderIds and o.status in :statuses")
+    int deleteOrders(@Param("orderIds") Collection<Long> orderIds,
+                     @Param("statuses") Collection<OrderStatus> statuses);
 }
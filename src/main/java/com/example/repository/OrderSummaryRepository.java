@@ -0,0 +1,34 @@
+package com.example.repository;
+
+import com.example.entities.OrderSummary;
+import com.example.enums.OrderStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Long> {
+
+    // ── Keyset pagination on (userId, createdAt, orderId), newest first ──
+
+    List<OrderSummary> findByUserIdOrderByCreatedAtDescOrderIdDesc(Long userId, Pageable pageable);
+
+    @Query("select s from OrderSummary s " +
+            "where s.userId = :userId " +
+            "and (s.createdAt < :createdAt or (s.createdAt = :createdAt and s.orderId < :orderId)) " +
+            "order by s.createdAt desc, s.orderId desc")
+    List<OrderSummary> findPageByUserIdBefore(@Param("userId") Long userId,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("orderId") Long orderId,
+                                              Pageable pageable);
+
+    @Modifying
+    @Query("update OrderSummary s set s.status = :status where s.orderId = :orderId")
+    int updateStatus(@Param("orderId") Long orderId, @Param("status") OrderStatus status);
+}
@@ -0,0 +1,26 @@
+package com.example.repository;
+
+import com.example.entities.ProcessedEventOffset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ProcessedEventOffsetRepository extends JpaRepository<ProcessedEventOffset, String> {
+
+    /**
+     * Only ever moves forward; returns 0 if the row is missing or already further along
+     */
+    @Transactional
+    @Modifying
+    @Query("update ProcessedEventOffset p set p.nextOffset = :nextOffset, p.updatedAt = :now " +
+            "where p.topicPartition = :topicPartition and p.nextOffset < :nextOffset")
+    int advance(@Param("topicPartition") String topicPartition,
+                @Param("nextOffset") long nextOffset,
+                @Param("now") LocalDateTime now);
+}
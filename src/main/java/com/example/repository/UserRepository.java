@@ -2,12 +2,23 @@ package com.example.repository;
 
 import com.example.entities.Users;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<Users, Long> {
     Optional<Users> findByUsername(String username);
     Optional<Users> findByEmail(String email);
+
+    // ID-only lookup — doesn't hydrate the entity (or its password hash)
+    @Query("select u.userId from Users u where u.userId = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+
+    @Query("select u.userId from Users u where u.userId in :userIds")
+    List<Long> findExistingIds(@Param("userIds") Collection<Long> userIds);
 }
@@ -0,0 +1,187 @@
+package com.example.service;
+
+import com.example.dto.CreateOrderRequest;
+import com.example.entities.Order;
+import com.example.entities.OrderIdempotencyKey;
+import com.example.exception.IdempotencyKeyConflictException;
+import com.example.exception.OrderException;
+import com.example.repository.OrderIdempotencyKeyRepository;
+import com.example.repository.OrderRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Remembers order placements by Idempotency-Key so client retries don't create duplicates.
+ *
+ * The key is stored in order_idempotency_keys in the order's own transaction, so a retry
+ * finds the original order whichever instance it lands on; when two instances race, the
+ * primary key lets only one order commit and the other request replays it.
+ *
+ * Within one instance, a duplicate that arrives while the first request is in flight
+ * waits for it and gets the same order back; recent results are also kept in memory.
+ * Keys are kept for the TTL. Failures are not remembered — nothing is stored, so the
+ * client's next retry runs again.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    private final OrderIdempotencyKeyRepository keyRepository;
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Entry> entries;
+    private final Duration ttl;
+    private final long waitTimeoutMs;
+
+    public IdempotencyStore(
+            OrderIdempotencyKeyRepository keyRepository,
+            OrderRepository orderRepository,
+            ObjectMapper objectMapper,
+            @Value("${orders.idempotency.ttl-minutes:60}") long ttlMinutes,
+            @Value("${orders.idempotency.max-size:100000}") long maxSize,
+            @Value("${orders.idempotency.wait-timeout-ms:10000}") long waitTimeoutMs) {
+        this.keyRepository = keyRepository;
+        this.orderRepository = orderRepository;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+        this.waitTimeoutMs = waitTimeoutMs;
+    }
+
+    /**
+     * Run placeOrder once per key
+     *
+     * placeOrder gets a callback to run inside the order's transaction (see
+     * OrderService.placeOrder), which stores the key.
+     *
+     * @throws IdempotencyKeyConflictException if the key was used for a different request,
+     *                                         or the first request is still running after the wait timeout
+     */
+    public Outcome execute(String key, CreateOrderRequest request,
+                           Function<Consumer<Order>, Order> placeOrder) {
+        Entry mine = new Entry(request, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(key, mine);
+
+        if (existing == null) {
+            try {
+                Outcome outcome = placeOnce(key, request, placeOrder);
+                mine.result().complete(outcome.order());
+                return outcome;
+            } catch (RuntimeException e) {
+                entries.asMap().remove(key, mine);
+                mine.result().completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        if (!existing.request().equals(request)) {
+            throw conflict(key);
+        }
+
+        log.info("Duplicate request for Idempotency-Key {}, returning the original result", key);
+        try {
+            return new Outcome(existing.result().get(waitTimeoutMs, TimeUnit.MILLISECONDS), true);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyConflictException(
+                    "A request with Idempotency-Key " + key + " is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyConflictException(
+                    "Interrupted while waiting for Idempotency-Key " + key);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${orders.idempotency.cleanup-interval-ms:600000}")
+    public void deleteExpiredKeys() {
+        int deleted = keyRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+        if (deleted > 0) {
+            log.info("Deleted {} idempotency keys older than {}", deleted, ttl);
+        }
+    }
+
+    /**
+     * Replay the order stored for the key, or place it and store the key with it
+     */
+    private Outcome placeOnce(String key, CreateOrderRequest request, Function<Consumer<Order>, Order> placeOrder) {
+        String requestHash = hash(request);
+        Optional<OrderIdempotencyKey> stored = keyRepository.findById(key);
+        if (stored.isPresent()) {
+            return replay(stored.get(), requestHash);
+        }
+
+        try {
+            Order order = placeOrder.apply(placed ->
+                    keyRepository.insert(key, placed.getOrderId(), requestHash, LocalDateTime.now()));
+            return new Outcome(order, false);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance stored the key first; our order was rolled back with it
+            return keyRepository.findById(key)
+                    .map(winner -> replay(winner, requestHash))
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private Outcome replay(OrderIdempotencyKey stored, String requestHash) {
+        if (!stored.getRequestHash().equals(requestHash)) {
+            throw conflict(stored.getIdempotencyKey());
+        }
+        log.info("Duplicate request for Idempotency-Key {}, returning order: {}",
+                stored.getIdempotencyKey(), stored.getOrderId());
+        Order order = orderRepository.findWithItemsByOrderId(stored.getOrderId())
+                .orElseThrow(() -> new OrderException("Order not found: " + stored.getOrderId()));
+        return new Outcome(order, true);
+    }
+
+    private String hash(CreateOrderRequest request) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException e) {
+            throw new OrderException("Failed to serialize order request: " + e.getMessage());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static IdempotencyKeyConflictException conflict(String key) {
+        return new IdempotencyKeyConflictException(
+                "Idempotency-Key " + key + " was already used for a different request");
+    }
+
+    private record Entry(CreateOrderRequest request, CompletableFuture<Order> result) {
+    }
+
+    /**
+     * The order, and whether it came from an earlier request with the same key
+     */
+    public record Outcome(Order order, boolean replayed) {
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.service;
+
+import com.example.dto.OrderCursor;
+import com.example.dto.OrderItemResponse;
+import com.example.dto.OrderResponse;
+import com.example.entities.ArchivedOrder;
+import com.example.enums.OrderStatus;
+import com.example.repository.ArchivedOrderRepository;
+import com.example.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves finished orders out of the hot tables, and reads them back.
+ *
+ * Each run walks the COMPLETED and CANCELLED orders created before the horizon (now minus
+ * orders.archive.min-age-days) oldest first, keyset on (createdAt, orderId). Every batch
+ * is one short transaction: INSERT ... SELECT into archived_orders and archived_order_items,
+ * then DELETE from order_items and orders. Runs pause between batches and stop after a
+ * fixed number of them, so the archiver never holds locks or the pool for long. Runs go
+ * on their own thread (orderArchiveExecutor), not the shared @Scheduled one.
+ *
+ * Both statuses are final, so an order can't change while it is being moved. Order
+ * summaries stay where they are: history lists keep showing archived orders.
+ *
+ * The createdAt of the newest archived order is cached and re-read after every scheduled
+ * run, including on instances with archiving disabled, so order lists only look in the
+ * archive for pages that reach back that far.
+ */
+@Service
+@Slf4j
+public class OrderArchiveService {
+
+    private static final Set<OrderStatus> ARCHIVABLE_STATUSES = EnumSet.of(OrderStatus.COMPLETED, OrderStatus.CANCELLED);
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor archiveExecutor;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int batchSize;
+    private final long pauseMs;
+    private final int maxBatchesPerRun;
+
+    private final Counter archivedCounter;
+    private final Timer batchTimer;
+
+    // Newest createdAt in archived_orders: null until read, LocalDateTime.MIN while it is empty
+    private volatile LocalDateTime newestArchived;
+
+    public OrderArchiveService(
+            OrderRepository orderRepository,
+            ArchivedOrderRepository archivedOrderRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Qualifier("orderArchiveExecutor") Executor archiveExecutor,
+            @Value("${orders.archive.enabled:false}") boolean enabled,
+            @Value("${orders.archive.min-age-days:90}") long minAgeDays,
+            @Value("${orders.archive.batch-size:1000}") int batchSize,
+            @Value("${orders.archive.pause-ms:500}") long pauseMs,
+            @Value("${orders.archive.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archiveExecutor = archiveExecutor;
+        this.enabled = enabled;
+        this.minAge = Duration.ofDays(minAgeDays);
+        this.batchSize = batchSize;
+        this.pauseMs = pauseMs;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+
+        this.archivedCounter = Counter.builder("orders.archive.moved")
+                .description("Orders moved to the archive tables")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("orders.archive.batch")
+                .description("Time to move one batch of orders to the archive")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hand a run to the archiver's thread; a tick while the last run is still going is skipped
+     */
+    @Scheduled(fixedDelayString = "${orders.archive.interval-ms:3600000}",
+            initialDelayString = "${orders.archive.initial-delay-ms:60000}")
+    public void scheduleArchive() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            archiveExecutor.execute(() -> {
+                try {
+                    archive();
+                } catch (RuntimeException e) {
+                    log.warn("Archive run failed: {}", e.getMessage(), e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            running.set(false);
+        }
+    }
+
+    public void archive() {
+        if (enabled) {
+            archiveBatches();
+        }
+        // Picks up orders other instances archived too
+        refreshNewestArchived();
+    }
+
+    private void archiveBatches() {
+        LocalDateTime cutoff = horizon();
+        Pageable page = PageRequest.of(0, batchSize);
+        OrderCursor after = null;
+        int moved = 0;
+
+        for (int batches = 0; batches < maxBatchesPerRun; batches++) {
+            List<OrderCursor> batch = after == null
+                    ? orderRepository.findArchivable(cutoff, ARCHIVABLE_STATUSES, page)
+                    : orderRepository.findArchivableAfter(cutoff, ARCHIVABLE_STATUSES,
+                    after.getCreatedAt(), after.getOrderId(), page);
+            if (batch.isEmpty()) {
+                break;
+            }
+            List<Long> orderIds = new ArrayList<>(batch.size());
+            for (OrderCursor order : batch) {
+                orderIds.add(order.getOrderId());
+            }
+            // Oldest first, so the last one is the newest; raised before the move, lists may only over-check
+            LocalDateTime newestInBatch = batch.get(batch.size() - 1).getCreatedAt();
+            if (newestArchived == null || newestInBatch.isAfter(newestArchived)) {
+                newestArchived = newestInBatch;
+            }
+
+            try {
+                int movedNow = batchTimer.record(() -> moveBatch(orderIds));
+                archivedCounter.increment(movedNow);
+                moved += movedNow;
+            } catch (RuntimeException e) {
+                // Typically another instance moving the same orders; the next run picks up what's left
+                log.warn("Archiving a batch of {} orders failed, stopping this run: {}", orderIds.size(), e.getMessage());
+                break;
+            }
+            if (batch.size() < batchSize || !pause()) {
+                break;
+            }
+            after = batch.get(batch.size() - 1);
+        }
+
+        if (moved > 0) {
+            log.info("Archived {} orders created before {}", moved, cutoff);
+        }
+    }
+
+    /**
+     * One archived order with its items
+     */
+    public Optional<OrderResponse> findOrder(Long orderId) {
+        return archivedOrderRepository.findById(orderId)
+                .map(order -> toResponse(order, archivedOrderRepository.findItemsByOrderIds(List.of(orderId))));
+    }
+
+    /**
+     * Whether archived orders could sort at or after an order created at the given time,
+     * i.e. whether a page of live orders ending there can have archived orders mixed in
+     */
+    public boolean mayHoldOrdersAfter(LocalDateTime createdAt) {
+        LocalDateTime newest = newestArchived;
+        if (newest == null) {
+            newest = refreshNewestArchived();
+        }
+        return !createdAt.isAfter(newest);
+    }
+
+    /**
+     * One page of a user's archived orders with their items, newest first
+     */
+    public List<OrderResponse> findPage(Long userId, OrderCursor cursor, Pageable page) {
+        List<ArchivedOrder> orders = cursor == null
+                ? archivedOrderRepository.findByUserIdOrderByCreatedAtDescOrderIdDesc(userId, page)
+                : archivedOrderRepository.findPageByUserIdBefore(userId, cursor.getCreatedAt(), cursor.getOrderId(), page);
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> orderIds = new ArrayList<>(orders.size());
+        for (ArchivedOrder order : orders) {
+            orderIds.add(order.getOrderId());
+        }
+        Map<Long, List<OrderItemResponse>> itemsByOrder = new HashMap<>();
+        for (OrderItemResponse item : archivedOrderRepository.findItemsByOrderIds(orderIds)) {
+            itemsByOrder.computeIfAbsent(item.getOrderId(), id -> new ArrayList<>()).add(item);
+        }
+
+        List<OrderResponse> responses = new ArrayList<>(orders.size());
+        for (ArchivedOrder order : orders) {
+            responses.add(toResponse(order, itemsByOrder.getOrDefault(order.getOrderId(), List.of())));
+        }
+        return responses;
+    }
+
+    /**
+     * Copy then delete, in one transaction; returns how many orders were moved
+     */
+    private int moveBatch(Collection<Long> orderIds) {
+        return transactionTemplate.execute(status -> {
+            int copied = archivedOrderRepository.copyOrders(orderIds, ARCHIVABLE_STATUSES);
+            archivedOrderRepository.copyItems(orderIds, ARCHIVABLE_STATUSES);
+            orderRepository.deleteItemsOfOrders(orderIds, ARCHIVABLE_STATUSES);
+            int deleted = orderRepository.deleteOrders(orderIds, ARCHIVABLE_STATUSES);
+            if (deleted != copied) {
+                throw new IllegalStateException("Copied " + copied + " orders but deleted " + deleted);
+            }
+            return copied;
+        });
+    }
+
+    /**
+     * Give OLTP traffic the database back between batches; false if interrupted
+     */
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private LocalDateTime refreshNewestArchived() {
+        LocalDateTime newest = archivedOrderRepository.findNewestCreatedAt();
+        newestArchived = newest != null ? newest : LocalDateTime.MIN;
+        return newestArchived;
+    }
+
+    private LocalDateTime horizon() {
+        return LocalDateTime.now().minus(minAge);
+    }
+
+    private static OrderResponse toResponse(ArchivedOrder order, List<OrderItemResponse> items) {
+        return OrderResponse.builder()
+                .orderId(order.getOrderId())
+                .userId(order.getUserId())
+                .status(order.getStatus())
+                .totalAmount(order.getTotalAmount())
+                .shippingAddress(order.getShippingAddress())
+                .items(items)
+                .createdAt(order.getCreatedAt())
+                .updatedAt(order.getUpdatedAt())
+                .build();
+    }
+}
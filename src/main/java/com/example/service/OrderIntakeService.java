@@ -0,0 +1,291 @@
+package com.example.service;
+
+import com.example.dto.CreateOrderRequest;
+import com.example.entities.Order;
+import com.example.entities.OrderIntake;
+import com.example.enums.IntakeStatus;
+import com.example.exception.IdempotencyKeyConflictException;
+import com.example.exception.OrderException;
+import com.example.exception.OrderIntakeRejectedException;
+import com.example.repository.OrderIntakeRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous order intake
+ *
+ * Flow:
+ * 1. A retry with a known Idempotency-Key gets the original intake back
+ * 2. Reserve a slot in the pipeline — none left means 429, nothing is persisted
+ * 3. Persist an ACCEPTED intake record with the request as JSON
+ * 4. Hand the request to a worker; the client gets 202 and polls the intake status
+ * 5. The worker runs the normal placeOrder, recording PLACED (with orderId) in the order's
+ *    own transaction, or FAILED when no order was created
+ *
+ * Every status change is conditional on the status it leaves, so once recovery has failed
+ * a slow intake, its worker can no longer place it: the PLACED update finds nothing to
+ * change and rolls the order back, and a client that resubmitted gets just the one order.
+ *
+ * Stage timings are published as orders.intake.stage{stage=persist|queue|place}.
+ */
+@Service
+@Slf4j
+public class OrderIntakeService {
+
+    private final OrderService orderService;
+    private final OrderIntakeRepository intakeRepository;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor executor;
+    private final long staleAfterMinutes;
+
+    // One permit per worker plus one per queue slot, so execute() never has to reject
+    private final Semaphore capacity;
+
+    private final Timer persistTimer;
+    private final Timer queueTimer;
+    private final Timer placeTimer;
+    private final Counter rejectedCounter;
+    private final Counter placedCounter;
+    private final Counter failedCounter;
+
+    public OrderIntakeService(
+            OrderService orderService,
+            OrderIntakeRepository intakeRepository,
+            ObjectMapper objectMapper,
+            @Qualifier("orderIntakeExecutor") ThreadPoolExecutor executor,
+            MeterRegistry meterRegistry,
+            @Value("${orders.intake.stale-after-minutes:5}") long staleAfterMinutes) {
+        this.orderService = orderService;
+        this.intakeRepository = intakeRepository;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.staleAfterMinutes = staleAfterMinutes;
+        this.capacity = new Semaphore(executor.getMaximumPoolSize() + executor.getQueue().remainingCapacity());
+
+        this.persistTimer = stageTimer(meterRegistry, "persist");
+        this.queueTimer = stageTimer(meterRegistry, "queue");
+        this.placeTimer = stageTimer(meterRegistry, "place");
+        this.rejectedCounter = outcomeCounter(meterRegistry, "rejected");
+        this.placedCounter = outcomeCounter(meterRegistry, "placed");
+        this.failedCounter = outcomeCounter(meterRegistry, "failed");
+        Gauge.builder("orders.intake.queue.depth", executor, e -> e.getQueue().size())
+                .description("Accepted orders waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("orders.intake.in.flight", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Accepted orders being placed right now")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Accept an order for asynchronous placement
+     *
+     * With an idempotency key (already scoped by user), a request whose key has been
+     * accepted before returns that intake instead of accepting the order again.
+     *
+     * @throws OrderIntakeRejectedException    when the pipeline is saturated
+     * @throws IdempotencyKeyConflictException if the key was used for a different request
+     */
+    public Accepted accept(CreateOrderRequest request, String idempotencyKey) {
+        if (idempotencyKey != null) {
+            Optional<OrderIntake> existing = intakeRepository.findByIdempotencyKey(idempotencyKey);
+            if (existing.isPresent()) {
+                return replay(existing.get(), request);
+            }
+        }
+        String payload = toJson(request);
+
+        if (!capacity.tryAcquire()) {
+            rejectedCounter.increment();
+            throw new OrderIntakeRejectedException("Order intake is at capacity, retry later");
+        }
+
+        OrderIntake intake;
+        try {
+            long start = System.nanoTime();
+            intake = intakeRepository.save(OrderIntake.builder()
+                    .intakeId(UUID.randomUUID().toString())
+                    .userId(request.getUserId())
+                    .idempotencyKey(idempotencyKey)
+                    .payload(payload)
+                    .build());
+            persistTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (DataIntegrityViolationException e) {
+            capacity.release();
+            // A concurrent request with the same key got in first
+            Optional<OrderIntake> winner = idempotencyKey != null
+                    ? intakeRepository.findByIdempotencyKey(idempotencyKey)
+                    : Optional.empty();
+            return winner.map(existing -> replay(existing, request)).orElseThrow(() -> e);
+        } catch (RuntimeException e) {
+            capacity.release();
+            throw e;
+        }
+
+        submit(intake.getIntakeId(), request);
+        log.info("Order intake {} accepted for user: {}", intake.getIntakeId(), request.getUserId());
+        return new Accepted(intake, false);
+    }
+
+    public Optional<OrderIntake> getIntake(String intakeId) {
+        return intakeRepository.findById(intakeId);
+    }
+
+    /**
+     * Pick up intakes left behind by a restart
+     *
+     * ACCEPTED intakes never reached placeOrder and are queued again. Stale PROCESSING
+     * intakes were interrupted before their order committed (PLACED commits with it), or
+     * are still running very slowly; either way they are failed rather than retried — the
+     * client decides whether to resubmit — and a worker still running can't place them now.
+     */
+    @Scheduled(fixedDelayString = "${orders.intake.recovery-interval-ms:60000}")
+    public void recoverStaleIntakes() {
+        LocalDateTime staleBefore = LocalDateTime.now().minusMinutes(staleAfterMinutes);
+
+        for (OrderIntake stuck : intakeRepository.findByStatusAndUpdatedAtBeforeOrderByAcceptedAt(
+                IntakeStatus.PROCESSING, staleBefore, PageRequest.of(0, 500))) {
+            log.warn("Order intake {} was interrupted while processing, marking FAILED", stuck.getIntakeId());
+            markFailed(stuck.getIntakeId(), IntakeStatus.PROCESSING, "Interrupted during processing, please resubmit");
+        }
+
+        List<OrderIntake> waiting = intakeRepository.findByStatusAndUpdatedAtBeforeOrderByAcceptedAt(
+                IntakeStatus.ACCEPTED, staleBefore, PageRequest.of(0, 500));
+        for (OrderIntake intake : waiting) {
+            CreateOrderRequest request;
+            try {
+                request = fromJson(intake.getPayload());
+            } catch (OrderException e) {
+                log.warn("Order intake {} has an unreadable payload, marking FAILED", intake.getIntakeId());
+                markFailed(intake.getIntakeId(), IntakeStatus.ACCEPTED, e.getMessage());
+                continue;
+            }
+            if (!capacity.tryAcquire()) {
+                return; // Busy — try again next run
+            }
+            log.info("Re-queueing order intake {}", intake.getIntakeId());
+            submit(intake.getIntakeId(), request);
+        }
+    }
+
+    /**
+     * Hand off to a worker; the caller must already hold a capacity permit, which is
+     * released when the worker is done or right away if the hand-off fails
+     */
+    private void submit(String intakeId, CreateOrderRequest request) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                try {
+                    queueTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                    place(intakeId, request);
+                } finally {
+                    capacity.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            capacity.release();
+            // The intake is saved as ACCEPTED, so recovery queues it again later
+            log.warn("Could not queue order intake {}, leaving it for recovery: {}", intakeId, e.getMessage());
+        }
+    }
+
+    private Accepted replay(OrderIntake intake, CreateOrderRequest request) {
+        if (!fromJson(intake.getPayload()).equals(request)) {
+            throw new IdempotencyKeyConflictException(
+                    "Idempotency-Key " + intake.getIdempotencyKey() + " was already used for a different request");
+        }
+        log.info("Duplicate request for Idempotency-Key {}, returning order intake {}",
+                intake.getIdempotencyKey(), intake.getIntakeId());
+        return new Accepted(intake, true);
+    }
+
+    private void place(String intakeId, CreateOrderRequest request) {
+        // A re-queued intake can be in the queue twice; only the first copy gets to place it
+        if (intakeRepository.claim(intakeId, LocalDateTime.now()) == 0) {
+            log.debug("Order intake {} already claimed, skipping", intakeId);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            // PLACED is committed with the order, so an exception here always means no order exists
+            Order order = orderService.placeOrder(request, placed -> {
+                if (intakeRepository.updateStatus(intakeId, IntakeStatus.PROCESSING, IntakeStatus.PLACED,
+                        placed.getOrderId(), null, LocalDateTime.now()) == 0) {
+                    // Recovery failed it while we were working; the client may have resubmitted
+                    throw new OrderException("Order intake " + intakeId + " is no longer processing");
+                }
+            });
+            placedCounter.increment();
+            log.info("Order intake {} placed as order: {}", intakeId, order.getOrderId());
+        } catch (RuntimeException e) {
+            log.warn("Order intake {} failed: {}", intakeId, e.getMessage());
+            markFailed(intakeId, IntakeStatus.PROCESSING, e.getMessage());
+        } finally {
+            placeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void markFailed(String intakeId, IntakeStatus from, String reason) {
+        if (reason != null && reason.length() > 255) {
+            reason = reason.substring(0, 255);
+        }
+        if (intakeRepository.updateStatus(intakeId, from, IntakeStatus.FAILED, null, reason, LocalDateTime.now()) > 0) {
+            failedCounter.increment();
+        }
+    }
+
+    private String toJson(CreateOrderRequest request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new OrderException("Failed to serialize order request: " + e.getMessage());
+        }
+    }
+
+    private CreateOrderRequest fromJson(String payload) {
+        try {
+            return objectMapper.readValue(payload, CreateOrderRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new OrderException("Failed to read stored order request: " + e.getMessage());
+        }
+    }
+
+    /**
+     * The intake, and whether it came from an earlier request with the same key
+     */
+    public record Accepted(OrderIntake intake, boolean replayed) {
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("orders.intake.stage")
+                .tag("stage", stage)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("orders.intake.requests")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -1,48 +1,91 @@
 package com.example.service;
 
 import com.example.client.InventoryServiceClient;
+import com.example.config.OrderMetrics;
+import com.example.config.OrderMetrics.Phase;
 import com.example.dto.*;
 import com.example.entities.Order;
 import com.example.entities.OrderItem;
-import com.example.entities.Users;
+import com.example.entities.OrderSummary;
 import com.example.enums.OrderStatus;
 import com.example.exception.InsufficientStockException;
 import com.example.exception.OrderException;
 import com.example.exception.UserNotFoundException;
-import com.example.kafka.OrderEventProducer;
+import com.example.kafka.OrderEventOutbox;
 import com.example.repository.OrderRepository;
-import com.example.repository.UserRepository;
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 public class OrderService {
 
-    private final UserRepository userRepository;
+    private static final Set<OrderStatus> CANCELLABLE_STATUSES = OrderStatus.CANCELLED.allowedFrom();
+    private static final Set<OrderStatus> COMPLETABLE_STATUSES = EnumSet.of(OrderStatus.PENDING);
+    private static final Set<OrderStatus> REVERTIBLE_STATUSES = EnumSet.of(OrderStatus.PAYMENT_PENDING);
+
+    private final UserExistenceCache userExistenceCache;
     private final OrderRepository orderRepository;
     private final InventoryServiceClient inventoryClient;
-    private final OrderEventProducer orderEventProducer;
+    private final OrderEventOutbox orderEventOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final OrderMetrics orderMetrics;
+    private final OrderSummaryService orderSummaryService;
+    private final OrderArchiveService orderArchiveService;
+    private final int maxPageSize;
 
     @Autowired
     public OrderService(
-            UserRepository userRepository,
+            UserExistenceCache userExistenceCache,
             OrderRepository orderRepository,
             InventoryServiceClient inventoryClient,
-            OrderEventProducer orderEventProducer) {
-        this.userRepository = userRepository;
+            OrderEventOutbox orderEventOutbox,
+            PlatformTransactionManager transactionManager,
+            EntityManager entityManager,
+            OrderMetrics orderMetrics,
+            OrderSummaryService orderSummaryService,
+            OrderArchiveService orderArchiveService,
+            @Value("${orders.page.max-size:100}") int maxPageSize) {
+        this.userExistenceCache = userExistenceCache;
         this.orderRepository = orderRepository;
         this.inventoryClient = inventoryClient;
-        this.orderEventProducer = orderEventProducer;
+        this.orderEventOutbox = orderEventOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.orderMetrics = orderMetrics;
+        this.orderSummaryService = orderSummaryService;
+        this.orderArchiveService = orderArchiveService;
+        this.maxPageSize = maxPageSize;
     }
 
     /**
@@ -54,24 +97,40 @@ public class OrderService {
      * 3. Create order with PENDING status
      * 4. Create order items with product snapshots
      * 5. Save order
-     * 6. Publish OrderCreated event to Kafka
+     * 6. Queue OrderCreated event in the outbox (same transaction as the order)
      * 7. Inventory Service will reserve stock when it receives the event
+     *
+     * Steps 1-2 run outside the transaction; only persisting the order and its
+     * outbox row hold a DB connection. OutboxRelay publishes the event to Kafka.
      */
-    @Transactional
     public Order placeOrder(CreateOrderRequest request) {
+        return placeOrder(request, order -> {
+        });
+    }
+
+    /**
+     * placeOrder, running inTransaction with the saved order before the transaction commits:
+     * whatever it writes is committed together with the order, or not at all
+     */
+    public Order placeOrder(CreateOrderRequest request, Consumer<Order> inTransaction) {
         log.info("Placing order for user: {}", request.getUserId());
 
         // 1. Validate user
-        Users user = validateUser(request.getUserId());
+        long start = System.nanoTime();
+        validateUser(request.getUserId());
+        orderMetrics.recordPhase(Phase.USER_VALIDATION, start);
 
         // 2. Check availability for all products from Inventory Service
-        List<ProductAvailabilityResponse> availabilityResponses = new ArrayList<>();
+        // One bulk call (or a concurrent fan-out) for the whole cart, done before the
+        // transaction starts so we don't hold a DB connection while waiting on HTTP
+        start = System.nanoTime();
+        List<ProductAvailabilityResponse> availabilityResponses =
+                inventoryClient.checkBulkAvailability(request.getItems());
+        orderMetrics.recordPhase(Phase.AVAILABILITY, start);
 
-        for (OrderItemRequest itemRequest : request.getItems()) {
-            ProductAvailabilityResponse availability = inventoryClient.checkProductAvailability(
-                    itemRequest.getProductId(),
-                    itemRequest.getQuantity()
-            );
+        for (int i = 0; i < request.getItems().size(); i++) {
+            OrderItemRequest itemRequest = request.getItems().get(i);
+            ProductAvailabilityResponse availability = availabilityResponses.get(i);
 
             // If product is not available, throw exception
             if (!availability.isAvailable()) {
@@ -87,156 +146,583 @@ public class OrderService {
                                 itemRequest.getQuantity())
                 );
             }
+        }
 
-            availabilityResponses.add(availability);
+        // The transaction is driven by hand rather than through a callback, so the outbox
+        // write's time can be taken out of PERSISTENCE without a holder object per order
+        start = System.nanoTime();
+        PlatformTransactionManager transactionManager = transactionTemplate.getTransactionManager();
+        TransactionStatus transaction = transactionManager.getTransaction(transactionTemplate);
+        Order order;
+        long eventPublishNanos;
+        try {
+            order = persistOrder(request, availabilityResponses);
+
+            // 6. Queue OrderCreated event — committed together with the order,
+            // Inventory Service will consume it and reserve stock
+            long publishStart = System.nanoTime();
+            orderEventOutbox.orderCreated(buildOrderCreatedEvent(order));
+            eventPublishNanos = orderMetrics.recordPhase(Phase.EVENT_PUBLISH, publishStart);
+
+            inTransaction.accept(order);
+        } catch (RuntimeException | Error e) {
+            transactionManager.rollback(transaction);
+            throw e;
         }
+        transactionManager.commit(transaction);
+        orderMetrics.recordPhase(Phase.PERSISTENCE, start, eventPublishNanos);
+        return order;
+    }
 
-        // 3. Create Order entity
-        Order order = Order.builder()
-                .userId(user.getUserId())
-                .status(OrderStatus.PENDING)
-                .shippingAddress(request.getShippingAddress())
-                .build();
+    /**
+     * Steps 3-5 of placeOrder — runs inside the transaction
+     */
+    private Order persistOrder(CreateOrderRequest request, List<ProductAvailabilityResponse> availabilityResponses) {
+        // 3-4. Create Order with its items
+        Order order = buildOrder(request, availabilityResponses);
 
-        // 4. Create OrderItems with product snapshots
-        List<OrderItem> orderItems = new ArrayList<>();
-        BigDecimal totalAmount = BigDecimal.ZERO;
+        // 5. Save order — flushed now so createdAt is generated before the event and summary copy it
+        Order savedOrder = orderRepository.saveAndFlush(order);
+        log.info("Order created with ID: {} for user: {}", savedOrder.getOrderId(), savedOrder.getUserId());
+        orderSummaryService.ordersCreated(List.of(savedOrder));
 
-        for (int i = 0; i < request.getItems().size(); i++) {
-            OrderItemRequest itemRequest = request.getItems().get(i);
-            ProductAvailabilityResponse availability = availabilityResponses.get(i);
+        return savedOrder;
+    }
 
-            OrderItem orderItem = OrderItem.builder()
-                    .order(order)
-                    .productId(availability.getProductId())
-                    .productName(availability.getProductName())
-                    .productSku(availability.getProductSku())
-                    .quantity(itemRequest.getQuantity())
-                    .priceAtOrder(availability.getCurrentPrice())
-                    .build();
+    /**
+     * Place many orders at once (B2B integrations)
+     *
+     * Flow:
+     * 1. Validate every user ID with one query
+     * 2. One availability pass for the distinct products across all orders
+     * 3. Allocate stock to orders in request order — an order that doesn't fit fails on its own
+     * 4. Save the accepted orders and their OrderCreated outbox rows in one transaction,
+     *    as JDBC batches; OutboxRelay then publishes them as Kafka batches
+     *
+     * Returns one result per requested order, in request order. A failure to reach the
+     * Inventory Service or the database fails the whole batch.
+     */
+    public BatchCreateOrderResponse placeOrders(List<CreateOrderRequest> requests) {
+        log.info("Placing batch of {} orders", requests.size());
+        BatchOrderResult[] results = new BatchOrderResult[requests.size()];
+
+        // 1. Validate users
+        Set<Long> userIds = new HashSet<>();
+        for (CreateOrderRequest request : requests) {
+            userIds.add(request.getUserId());
+        }
+        Set<Long> existingUsers = userExistenceCache.existing(userIds);
+
+        List<Integer> candidates = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            Long userId = requests.get(i).getUserId();
+            if (existingUsers.contains(userId)) {
+                candidates.add(i);
+            } else {
+                results[i] = BatchOrderResult.failed(i, "User not found with ID: " + userId);
+            }
+        }
 
-            // Subtotal is calculated automatically via @PrePersist
-            orderItems.add(orderItem);
+        // 2. Total demand per product, checked in a single pass
+        Map<Long, Integer> demand = new LinkedHashMap<>();
+        for (int index : candidates) {
+            for (OrderItemRequest item : requests.get(index).getItems()) {
+                demand.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            }
+        }
+        Map<Long, ProductAvailabilityResponse> availability = checkAvailability(demand);
+
+        Map<Long, Integer> remaining = new HashMap<>();
+        availability.forEach((productId, response) ->
+                remaining.put(productId, allocatableStock(response, demand.get(productId))));
+
+        // 3. Allocate and build
+        List<Integer> acceptedIndexes = new ArrayList<>(candidates.size());
+        List<Order> orders = new ArrayList<>(candidates.size());
+        for (int index : candidates) {
+            CreateOrderRequest request = requests.get(index);
+            String shortage = allocate(request.getItems(), availability, remaining);
+            if (shortage != null) {
+                results[index] = BatchOrderResult.failed(index, shortage);
+                continue;
+            }
 
-            // Calculate total
-            BigDecimal itemTotal = availability.getCurrentPrice()
-                    .multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
-            totalAmount = totalAmount.add(itemTotal);
+            List<ProductAvailabilityResponse> lines = new ArrayList<>(request.getItems().size());
+            for (OrderItemRequest item : request.getItems()) {
+                lines.add(availability.get(item.getProductId()));
+            }
+            orders.add(buildOrder(request, lines));
+            acceptedIndexes.add(index);
         }
 
-        order.setOrderItems(orderItems);
-        order.setTotalAmount(totalAmount);
+        // 4. Persist
+        if (!orders.isEmpty()) {
+            List<Order> saved = transactionTemplate.execute(status -> persistOrders(orders));
+            for (int i = 0; i < saved.size(); i++) {
+                int index = acceptedIndexes.get(i);
+                results[index] = BatchOrderResult.placed(index, saved.get(i).getOrderId());
+            }
+        }
 
-        // 5. Save order
-        Order savedOrder = orderRepository.save(order);
-        log.info("Order created with ID: {} for user: {}", savedOrder.getOrderId(), savedOrder.getUserId());
+        log.info("Batch placed {} of {} orders", orders.size(), requests.size());
+        return BatchCreateOrderResponse.builder()
+                .placed(orders.size())
+                .failed(requests.size() - orders.size())
+                .results(List.of(results))
+                .build();
+    }
 
-        // 6. Publish OrderCreated event to Kafka
-        // Inventory Service will consume this and reserve stock
-        try {
-            OrderCreatedEvent event = buildOrderCreatedEvent(savedOrder);
-            orderEventProducer.publishOrderCreated(event);
-            log.info("OrderCreated event published for order: {}", savedOrder.getOrderId());
-        } catch (Exception e) {
-            log.error("Failed to publish OrderCreated event for order {}: {}",
-                    savedOrder.getOrderId(), e.getMessage(), e);
-            // Order is still created even if event publishing fails
-            // In production, you'd want retry logic or dead letter queue
+    private Map<Long, ProductAvailabilityResponse> checkAvailability(Map<Long, Integer> demand) {
+        Map<Long, ProductAvailabilityResponse> availability = new HashMap<>();
+        if (demand.isEmpty()) {
+            return availability;
         }
 
-        return savedOrder;
+        List<OrderItemRequest> items = new ArrayList<>(demand.size());
+        demand.forEach((productId, quantity) -> items.add(OrderItemRequest.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .build()));
+
+        List<ProductAvailabilityResponse> responses = inventoryClient.checkBulkAvailability(items);
+        for (int i = 0; i < items.size(); i++) {
+            availability.put(items.get(i).getProductId(), responses.get(i));
+        }
+        return availability;
+    }
+
+    /**
+     * Step 4 of placeOrders — runs inside the transaction
+     */
+    private List<Order> persistOrders(List<Order> orders) {
+        List<Order> savedOrders = orderRepository.saveAll(orders);
+        entityManager.flush(); // Still one batch per table; generates createdAt for the events
+        orderSummaryService.ordersCreated(savedOrders);
+
+        List<OrderCreatedEvent> events = new ArrayList<>(savedOrders.size());
+        for (Order order : savedOrders) {
+            events.add(buildOrderCreatedEvent(order));
+        }
+        orderEventOutbox.orderCreated(events);
+
+        return savedOrders;
+    }
+
+    /**
+     * How much of a product the batch may hand out, given the answer for the total demand
+     */
+    static int allocatableStock(ProductAvailabilityResponse availability, int demand) {
+        Integer quantity = availability.getAvailableQuantity();
+        if (availability.isAvailable()) {
+            return quantity != null ? quantity : demand;
+        }
+        // Not available for the whole batch: only the reported quantity can be shared out.
+        // If that would have covered the batch, the product is unavailable for another reason.
+        return quantity != null && quantity < demand ? quantity : 0;
     }
 
     /**
-     * Get order by ID
+     * Take one order's quantities out of the remaining stock, all or nothing
+     *
+     * Returns null when the order fits, otherwise the reason it doesn't.
      */
-    public Optional<Order> getOrder(Long orderId) {
+    static String allocate(List<OrderItemRequest> items,
+                           Map<Long, ProductAvailabilityResponse> availability,
+                           Map<Long, Integer> remaining) {
+        // The same product can appear on several lines of one order
+        Map<Long, Integer> needed = new LinkedHashMap<>();
+        for (OrderItemRequest item : items) {
+            needed.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+
+        for (Map.Entry<Long, Integer> entry : needed.entrySet()) {
+            int left = remaining.getOrDefault(entry.getKey(), 0);
+            if (entry.getValue() > left) {
+                return String.format("Insufficient stock for product: %s. Available: %d, Requested: %d",
+                        availability.get(entry.getKey()).getProductName(), left, entry.getValue());
+            }
+        }
+
+        needed.forEach((productId, quantity) -> remaining.merge(productId, -quantity, Integer::sum));
+        return null;
+    }
+
+    /**
+     * Get order by ID, from the archive if it has been moved there
+     */
+    public Optional<OrderResponse> getOrder(Long orderId) {
         log.info("Fetching order by ID: {}", orderId);
-        return orderRepository.findById(orderId);
+        // Order and items in one join
+        return orderRepository.findWithItemsByOrderId(orderId).map(OrderResponse::from)
+                .or(() -> orderArchiveService.findOrder(orderId));
     }
 
     /**
-     * Get all orders for a user
+     * Get one page of a user's orders, newest first, archived ones included
+     *
+     * The archive is only queried when its orders could fall on this page: a full page
+     * of live orders newer than anything archived (the usual case) doesn't touch it.
      */
-    public Iterable<Order> getOrdersByUserId(Long userId) {
+    public CursorPage<OrderResponse> getOrdersByUserId(Long userId, OrderCursor cursor, int limit) {
         log.info("Fetching orders for user: {}", userId);
         validateUser(userId);
-        return orderRepository.findByUserId(userId);
+
+        Pageable page = pageOf(limit);
+        List<Order> orders = cursor == null
+                ? orderRepository.findByUserIdOrderByCreatedAtDescOrderIdDesc(userId, page)
+                : orderRepository.findPageByUserIdBefore(userId, cursor.getCreatedAt(), cursor.getOrderId(), page);
+
+        List<OrderResponse> archived = orders.size() < page.getPageSize()
+                || orderArchiveService.mayHoldOrdersAfter(orders.get(orders.size() - 1).getCreatedAt())
+                ? orderArchiveService.findPage(userId, cursor, page)
+                : List.of();
+        if (archived.isEmpty()) {
+            return withItems(toPage(orders, page.getPageSize() - 1,
+                    order -> new OrderCursor(order.getCreatedAt(), order.getOrderId())));
+        }
+
+        // Both lists are newest first and at most one page (+1) long: merge, then cut
+        List<OrderResponse> merged = new ArrayList<>(toResponses(orders));
+        merged.addAll(archived);
+        merged.sort(Comparator.comparing(OrderResponse::getCreatedAt)
+                .thenComparing(OrderResponse::getOrderId)
+                .reversed());
+        return toPage(merged.subList(0, Math.min(merged.size(), page.getPageSize())), page.getPageSize() - 1,
+                order -> new OrderCursor(order.getCreatedAt(), order.getOrderId()));
+    }
+
+    /**
+     * Get one page of a user's order summaries, newest first
+     *
+     * Served from the order_summaries read model with one indexed query; fetch the
+     * full order with GET /{orderId} on drill-down.
+     */
+    public CursorPage<OrderSummary> getOrderSummaries(Long userId, OrderCursor cursor, int limit) {
+        log.info("Fetching order summaries for user: {}", userId);
+        validateUser(userId);
+
+        Pageable page = pageOf(limit);
+        List<OrderSummary> summaries = orderSummaryService.findPage(userId, cursor, page);
+        return toPage(summaries, page.getPageSize() - 1,
+                summary -> new OrderCursor(summary.getCreatedAt(), summary.getOrderId()));
     }
 
     /**
-     * Get all orders (admin function)
+     * Get one page of all orders, newest first (admin function)
      */
-    public Iterable<Order> getAllOrders() {
+    public CursorPage<OrderResponse> getAllOrders(OrderCursor cursor, int limit) {
         log.info("Fetching all orders");
-        return orderRepository.findAll();
+
+        Pageable page = pageOf(limit);
+        List<Order> orders = cursor == null
+                ? orderRepository.findAllByOrderByCreatedAtDescOrderIdDesc(page)
+                : orderRepository.findPageBefore(cursor.getCreatedAt(), cursor.getOrderId(), page);
+        return withItems(toPage(orders, page.getPageSize() - 1,
+                order -> new OrderCursor(order.getCreatedAt(), order.getOrderId())));
+    }
+
+    /**
+     * Turn a page of orders into DTOs, loading the items of the whole page with one query
+     * (so a page costs two statements, whatever its size)
+     */
+    private CursorPage<OrderResponse> withItems(CursorPage<Order> page) {
+        return CursorPage.<OrderResponse>builder()
+                .items(toResponses(page.getItems()))
+                .nextCursor(page.getNextCursor())
+                .build();
+    }
+
+    private List<OrderResponse> toResponses(List<Order> orders) {
+        Map<Long, List<OrderItemResponse>> itemsByOrder = new HashMap<>();
+        if (!orders.isEmpty()) {
+            List<Long> orderIds = new ArrayList<>(orders.size());
+            for (Order order : orders) {
+                orderIds.add(order.getOrderId());
+            }
+            for (OrderItemResponse item : orderRepository.findItemsByOrderIds(orderIds)) {
+                itemsByOrder.computeIfAbsent(item.getOrderId(), id -> new ArrayList<>()).add(item);
+            }
+        }
+
+        List<OrderResponse> responses = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            responses.add(OrderResponse.from(order, itemsByOrder.getOrDefault(order.getOrderId(), List.of())));
+        }
+        return responses;
+    }
+
+    /**
+     * Stream every order to the sink with constant memory (admin export)
+     *
+     * Each order is detached once the sink is done with it, so the persistence
+     * context never grows past one order.
+     */
+    @Transactional(readOnly = true)
+    public void exportAllOrders(Consumer<Order> sink) {
+        log.info("Exporting all orders");
+        try (Stream<Order> orders = orderRepository.streamAllWithItems()) {
+            orders.forEach(order -> {
+                sink.accept(order);
+                entityManager.detach(order);
+            });
+        }
+    }
+
+    /**
+     * Distinct product IDs across the given orders
+     */
+    public List<Long> getProductIds(Collection<Long> orderIds) {
+        return orderRepository.findProductIdsByOrderIds(orderIds);
     }
 
     /**
      * Cancel order
-     * This will publish OrderCancelled event
+     * This will queue an OrderCancelled event
      * Inventory Service will release reserved stock
      */
     @Transactional
     public Order cancelOrder(Long orderId) {
         log.info("Cancelling order: {}", orderId);
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderException("Order not found with ID: " + orderId));
+        // Only allow cancellation of PENDING, INVENTORY_RESERVED or PAYMENT_PENDING orders
+        if (!transition(orderId, CANCELLABLE_STATUSES, OrderStatus.CANCELLED)) {
+            throw new OrderException("Only pending orders can be cancelled. Current status: " + currentStatus(orderId));
+        }
+
+        // Queue OrderCancelled event
+        // Inventory Service will release the stock
+        orderEventOutbox.orderCancelled(orderId);
 
-        // Only allow cancellation of PENDING or INVENTORY_RESERVED orders
-        if (order.getStatus() != OrderStatus.PENDING &&
-                order.getStatus() != OrderStatus.INVENTORY_RESERVED &&
-                order.getStatus() != OrderStatus.PAYMENT_PENDING) {
-            throw new OrderException("Only pending orders can be cancelled. Current status: " + order.getStatus());
+        return orderRepository.findWithItemsByOrderId(orderId).orElseThrow();
+    }
+
+    /**
+     * Apply a batch of inventory events
+     *
+     * Loads every affected order with one IN query, applies the events in the order
+     * they were received, and lets the commit flush all status changes (and outbox rows)
+     * together as JDBC batches. Events that don't fit the order's current status are
+     * logged and skipped, same as the single-event paths.
+     *
+     * If another consumer changes one of these orders in the meantime, @Version fails the
+     * commit and the whole batch is redelivered rather than overwriting that change.
+     */
+    @Transactional
+    public void applyInventoryEvents(List<?> events) {
+        Set<Long> orderIds = new HashSet<>();
+        for (Object event : events) {
+            orderIds.add(orderIdOf(event));
         }
 
-        order.setStatus(OrderStatus.CANCELLED);
-        order.setUpdatedAt(LocalDateTime.now());
+        Map<Long, Order> orders = new HashMap<>();
+        for (Order order : orderRepository.findAllById(orderIds)) {
+            orders.put(order.getOrderId(), order);
+        }
+        log.info("Applying {} inventory events to {} orders", events.size(), orders.size());
 
-        Order cancelledOrder = orderRepository.save(order);
+        Map<Long, Order> changed = new HashMap<>();
+        List<Object> statusEvents = new ArrayList<>();
 
-        // Publish OrderCancelled event
-        // Inventory Service will release the stock
-        try {
-            orderEventProducer.publishOrderCancelled(orderId);
-            log.info("OrderCancelled event published for order: {}", orderId);
-        } catch (Exception e) {
-            log.error("Failed to publish OrderCancelled event: {}", e.getMessage(), e);
+        for (Object event : events) {
+            Long orderId = orderIdOf(event);
+            Order order = orders.get(orderId);
+            if (order == null) {
+                log.warn("Skipping {} for unknown order: {}", event.getClass().getSimpleName(), orderId);
+                continue;
+            }
+
+            long start = System.nanoTime();
+            OrderStatus before = order.getStatus();
+            try {
+                applyInventoryEvent(event, order, statusEvents);
+            } finally {
+                orderMetrics.recordHandled(eventTypeOf(event), start);
+            }
+            if (order.getStatus() != before) {
+                changed.put(orderId, order);
+            }
         }
 
-        return cancelledOrder;
+        if (!changed.isEmpty()) {
+            orderSummaryService.statusChanged(changed.values());
+        }
+        // The outbox rows go in as one JDBC batch: OutboxEvent ids are IDENTITY, which Hibernate won't batch
+        if (!statusEvents.isEmpty()) {
+            orderEventOutbox.statusChanged(statusEvents);
+        }
+        // No explicit save: the loaded orders are managed, dirty checking writes them at commit
+    }
+
+    private void applyInventoryEvent(Object event, Order order, List<Object> statusEvents) {
+        Long orderId = order.getOrderId();
+        switch (event) {
+            case StockReservationFailedEvent e -> {
+                if (!CANCELLABLE_STATUSES.contains(order.getStatus())) {
+                    log.warn("Order {} cannot be cancelled after reservation failure. Current status: {}",
+                            orderId, order.getStatus());
+                    return;
+                }
+                markStatus(order, OrderStatus.CANCELLED);
+                statusEvents.add(OrderEventOutbox.cancelled(orderId));
+            }
+            case StockReleasedEvent e -> {
+                if (!COMPLETABLE_STATUSES.contains(order.getStatus())) {
+                    log.warn("Order {} is not in PENDING status. Current status: {}, cannot complete.",
+                            orderId, order.getStatus());
+                    return;
+                }
+                markStatus(order, OrderStatus.COMPLETED);
+                statusEvents.add(OrderEventOutbox.completed(orderId, e.getUserId()));
+            }
+            case StockRevertEvent e -> {
+                if (!REVERTIBLE_STATUSES.contains(order.getStatus())) {
+                    log.warn("Order {} is not in PAYMENT_PENDING status. Current status: {}, cannot revert stock.",
+                            orderId, order.getStatus());
+                    return;
+                }
+                markStatus(order, OrderStatus.CANCELLED);
+                statusEvents.add(OrderEventOutbox.cancelled(orderId));
+            }
+            default -> throw new IllegalArgumentException(
+                    "Unsupported inventory event: " + event.getClass().getName());
+        }
     }
 
     /**
-     * Update order status
-     * Called by Kafka consumers when events are received
+     * Run a status change as one conditional UPDATE; false if the order wasn't in
+     * one of the expected statuses (or doesn't exist)
      */
-    @Transactional
-    public Order updateOrderStatus(Long orderId, OrderStatus newStatus) {
-        log.info("Updating order {} status to {}", orderId, newStatus);
+    private boolean transition(Long orderId, Set<OrderStatus> from, OrderStatus to) {
+        if (orderRepository.updateStatusIfIn(orderId, from, to, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        log.info("Order {} -> {}", orderId, to);
+        orderSummaryService.statusChanged(orderId, to);
+        recordTransitionAfterCommit(to);
+        return true;
+    }
 
-        Order order = orderRepository.findById(orderId)
+    /**
+     * Status for error messages after a transition didn't apply
+     */
+    private OrderStatus currentStatus(Long orderId) {
+        return orderRepository.findStatusByOrderId(orderId)
                 .orElseThrow(() -> new OrderException("Order not found with ID: " + orderId));
+    }
 
-        order.setStatus(newStatus);
+    private void markStatus(Order order, OrderStatus status) {
+        log.info("Order {} {} -> {}", order.getOrderId(), order.getStatus(), status);
+        recordTransitionAfterCommit(status);
+        order.setStatus(status);
         order.setUpdatedAt(LocalDateTime.now());
+    }
+
+    /**
+     * Counted only once the transaction commits, so a rolled-back change (a failed batch,
+     * a lost race) doesn't show up as a transition that never happened
+     */
+    private void recordTransitionAfterCommit(OrderStatus to) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                orderMetrics.recordTransition(to);
+            }
+        });
+    }
 
-        return orderRepository.save(order);
+    private static Long orderIdOf(Object event) {
+        return switch (event) {
+            case StockReservationFailedEvent e -> e.getOrderId();
+            case StockReleasedEvent e -> e.getOrderId();
+            case StockRevertEvent e -> e.getOrderId();
+            default -> throw new IllegalArgumentException(
+                    "Unsupported inventory event: " + event.getClass().getName());
+        };
+    }
+
+    private static String eventTypeOf(Object event) {
+        return switch (event) {
+            case StockReservationFailedEvent e -> "STOCK_RESERVATION_FAILED";
+            case StockReleasedEvent e -> "STOCK_RELEASED";
+            case StockRevertEvent e -> "STOCK_REVERTED";
+            default -> event.getClass().getSimpleName();
+        };
     }
 
     /**
      * Validate user exists
      */
-    private Users validateUser(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + userId));
+    private void validateUser(Long userId) {
+        if (!userExistenceCache.exists(userId)) {
+            throw new UserNotFoundException("User not found with ID: " + userId);
+        }
+    }
+
+    /**
+     * Clamp the requested page size and ask for one extra row to detect the next page
+     */
+    private Pageable pageOf(int limit) {
+        int size = Math.min(Math.max(limit, 1), maxPageSize);
+        return PageRequest.of(0, size + 1);
+    }
+
+    private static <T> CursorPage<T> toPage(List<T> rows, int limit, Function<T, OrderCursor> cursorOf) {
+        if (rows.size() <= limit) {
+            return CursorPage.<T>builder().items(rows).build();
+        }
+        List<T> items = rows.subList(0, limit);
+        return CursorPage.<T>builder()
+                .items(items)
+                .nextCursor(cursorOf.apply(items.get(limit - 1)).encode())
+                .build();
+    }
+
+    /**
+     * Build the Order and its OrderItems (with product snapshots) from a checked cart
+     */
+    static Order buildOrder(CreateOrderRequest request, List<ProductAvailabilityResponse> availabilityResponses) {
+        // 3. Create Order entity
+        Order order = Order.builder()
+                .userId(request.getUserId())
+                .status(OrderStatus.PENDING)
+                .shippingAddress(request.getShippingAddress())
+                .build();
+
+        // 4. Create OrderItems with product snapshots
+        List<OrderItem> orderItems = new ArrayList<>(request.getItems().size());
+        BigDecimal totalAmount = BigDecimal.ZERO;
+
+        for (int i = 0; i < request.getItems().size(); i++) {
+            OrderItemRequest itemRequest = request.getItems().get(i);
+            ProductAvailabilityResponse availability = availabilityResponses.get(i);
+
+            OrderItem orderItem = OrderItem.builder()
+                    .order(order)
+                    .productId(availability.getProductId())
+                    .productName(availability.getProductName())
+                    .productSku(availability.getProductSku())
+                    .quantity(itemRequest.getQuantity())
+                    .priceAtOrder(availability.getCurrentPrice())
+                    .build();
+
+            // Subtotal is calculated automatically via @PrePersist
+            orderItems.add(orderItem);
+
+            // Calculate total
+            BigDecimal itemTotal = availability.getCurrentPrice()
+                    .multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
+            totalAmount = totalAmount.add(itemTotal);
+        }
+
+        order.setOrderItems(orderItems);
+        order.setTotalAmount(totalAmount);
+        return order;
     }
 
     /**
      * Build OrderCreatedEvent from Order entity
      */
-    private OrderCreatedEvent buildOrderCreatedEvent(Order order) {
+    static OrderCreatedEvent buildOrderCreatedEvent(Order order) {
         List<OrderCreatedEvent.OrderItemDto> itemDtos = order.getOrderItems().stream()
                 .map(item -> OrderCreatedEvent.OrderItemDto.builder()
                         .productId(item.getProductId())
@@ -258,49 +744,33 @@ public class OrderService {
                 .build();
     }
 
+    @Transactional
     public void completeOrder(OrderCompletedRequest request) {
         log.info("Completing order: {}", request.getOrderId());
 
-        Order order = orderRepository.findById(request.getOrderId())
-                .orElseThrow(() -> new OrderException("Order not found with ID: " + request.getOrderId()));
-
-        if (order.getStatus() != OrderStatus.PENDING) {
+        if (!transition(request.getOrderId(), COMPLETABLE_STATUSES, OrderStatus.COMPLETED)) {
             log.warn("Order {} is not in PENDING status. Current status: {}, cannot complete.",
-                    request.getOrderId(), order.getStatus());
+                    request.getOrderId(), currentStatus(request.getOrderId()));
             return;
         }
-        order.setStatus(OrderStatus.COMPLETED);
-        order.setUpdatedAt(LocalDateTime.now());
-        orderRepository.save(order);
-            log.info("Order {} marked as COMPLETED", request.getOrderId());
-         orderEventProducer.publishOrderCompleted(request.getOrderId(), request.getUserId());
+        log.info("Order {} marked as COMPLETED", request.getOrderId());
+        orderEventOutbox.orderCompleted(request.getOrderId(), request.getUserId());
 
     }
 
+    @Transactional
     public void revertStockForOrder(Long orderId, String reason) {
         log.info("Reverting stock for order: {} due to reason: {}", orderId, reason);
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderException("Order not found with ID: " + orderId));
-
-        if (order.getStatus() != OrderStatus.PAYMENT_PENDING) {
+        // Update order status to CANCELLED
+        if (!transition(orderId, REVERTIBLE_STATUSES, OrderStatus.CANCELLED)) {
             log.warn("Order {} is not in PAYMENT_PENDING status. Current status: {}, cannot revert stock.",
-                    orderId, order.getStatus());
+                    orderId, currentStatus(orderId));
             return;
         }
-
-        // Update order status to CANCELLED
-        order.setStatus(OrderStatus.CANCELLED);
-        order.setUpdatedAt(LocalDateTime.now());
-        orderRepository.save(order);
         log.info("Order {} marked as CANCELLED due to stock revert", orderId);
 
-        // Publish OrderCancelled event to release stock
-        try {
-            orderEventProducer.publishOrderCancelled(orderId);
-            log.info("OrderCancelled event published for order: {}", orderId);
-        } catch (Exception e) {
-            log.error("Failed to publish OrderCancelled event for stock revert: {}", e.getMessage(), e);
-        }
+        // Queue OrderCancelled event to release stock
+        orderEventOutbox.orderCancelled(orderId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,148 @@
+package com.example.service;
+
+import com.example.dto.OrderCursor;
+import com.example.entities.Order;
+import com.example.entities.OrderSummary;
+import com.example.enums.OrderStatus;
+import com.example.repository.OrderSummaryRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the order_summaries read model in step with the orders table.
+ *
+ * Writes run inside the caller's transaction, so a summary changes if and only if
+ * its order did. Reads are one query on the (userId, createdAt, orderId) index; the
+ * first page per user can optionally be cached. New orders evict it once they have
+ * committed, status changes show up once the (short) TTL expires. Summaries of orders
+ * placed before the read model existed are created by migration V12.
+ */
+@Service
+public class OrderSummaryService {
+
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final EntityManager entityManager;
+    private final int maxPageSize;
+
+    // Largest first page per user, sliced to the requested size — null when the cache is disabled
+    private final Cache<Long, List<OrderSummary>> firstPages;
+
+    public OrderSummaryService(
+            OrderSummaryRepository orderSummaryRepository,
+            EntityManager entityManager,
+            MeterRegistry meterRegistry,
+            @Value("${orders.page.max-size:100}") int maxPageSize,
+            @Value("${orders.summary.cache.enabled:false}") boolean cacheEnabled,
+            @Value("${orders.summary.cache.max-size:10000}") long cacheMaxSize,
+            @Value("${orders.summary.cache.ttl-seconds:5}") long cacheTtlSeconds) {
+        this.orderSummaryRepository = orderSummaryRepository;
+        this.entityManager = entityManager;
+        this.maxPageSize = maxPageSize;
+
+        if (cacheEnabled) {
+            this.firstPages = Caffeine.newBuilder()
+                    .maximumSize(cacheMaxSize)
+                    .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, firstPages, "orders.summaries");
+        } else {
+            this.firstPages = null;
+        }
+    }
+
+    /**
+     * Record newly placed orders; IDs are assigned, so these are plain batched INSERTs
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ordersCreated(Collection<Order> orders) {
+        Set<Long> userIds = new HashSet<>();
+        for (Order order : orders) {
+            entityManager.persist(OrderSummary.builder()
+                    .orderId(order.getOrderId())
+                    .userId(order.getUserId())
+                    .status(order.getStatus())
+                    .totalAmount(order.getTotalAmount())
+                    .itemCount(order.getOrderItems().size())
+                    .createdAt(order.getCreatedAt())
+                    .build());
+            userIds.add(order.getUserId());
+        }
+        evictAfterCommit(userIds);
+    }
+
+    /**
+     * Status change made with a conditional UPDATE on orders
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusChanged(Long orderId, OrderStatus status) {
+        orderSummaryRepository.updateStatus(orderId, status);
+    }
+
+    /**
+     * Status changes made on managed orders; the summaries are flushed with them as one batch
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusChanged(Collection<Order> orders) {
+        Map<Long, OrderStatus> statuses = new HashMap<>(orders.size());
+        for (Order order : orders) {
+            statuses.put(order.getOrderId(), order.getStatus());
+        }
+        for (OrderSummary summary : orderSummaryRepository.findAllById(statuses.keySet())) {
+            summary.setStatus(statuses.get(summary.getOrderId()));
+        }
+    }
+
+    /**
+     * One page of a user's summaries, newest first
+     */
+    public List<OrderSummary> findPage(Long userId, OrderCursor cursor, Pageable page) {
+        if (cursor != null) {
+            return orderSummaryRepository.findPageByUserIdBefore(
+                    userId, cursor.getCreatedAt(), cursor.getOrderId(), page);
+        }
+        if (firstPages == null) {
+            return orderSummaryRepository.findByUserIdOrderByCreatedAtDescOrderIdDesc(userId, page);
+        }
+        // One extra row, as OrderService asks for, so the cached list can answer any page size
+        List<OrderSummary> firstPage = firstPages.get(userId, id -> List.copyOf(
+                orderSummaryRepository.findByUserIdOrderByCreatedAtDescOrderIdDesc(
+                        id, PageRequest.of(0, maxPageSize + 1))));
+        return firstPage.subList(0, Math.min(firstPage.size(), page.getPageSize()));
+    }
+
+    /**
+     * Evicting before the commit would let a concurrent read cache the page again without
+     * the new orders, for up to the TTL
+     */
+    private void evictAfterCommit(Set<Long> userIds) {
+        if (firstPages == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                firstPages.invalidateAll(userIds);
+            }
+        });
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.service;
+
+import com.example.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remembers which user IDs exist, so the order paths don't load a Users row
+ * just to check it is there.
+ *
+ * Known users stay cached for the positive TTL. Unknown IDs are cached too, but only
+ * for the much shorter negative TTL — and createUser overwrites them straight away.
+ */
+@Component
+public class UserExistenceCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Boolean> cache;
+
+    public UserExistenceCache(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${users.existence-cache.max-size:100000}") long maxSize,
+            @Value("${users.existence-cache.ttl-seconds:600}") long ttlSeconds,
+            @Value("${users.existence-cache.negative-ttl-seconds:30}") long negativeTtlSeconds) {
+        this.userRepository = userRepository;
+
+        Duration positiveTtl = Duration.ofSeconds(ttlSeconds);
+        Duration negativeTtl = Duration.ofSeconds(negativeTtlSeconds);
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.<Long, Boolean>writing(
+                        (userId, exists) -> exists ? positiveTtl : negativeTtl))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users.existence");
+    }
+
+    /**
+     * Whether the user exists; hits the database (ID-only query) on a miss
+     */
+    public boolean exists(Long userId) {
+        return cache.get(userId, id -> userRepository.findIdByUserId(id).isPresent());
+    }
+
+    /**
+     * Which of the given users exist; all misses are resolved with one IN query
+     */
+    public Set<Long> existing(Collection<Long> userIds) {
+        Map<Long, Boolean> known = cache.getAll(userIds, missing -> {
+            Set<Long> found = new HashSet<>(userRepository.findExistingIds(List.copyOf(missing)));
+            Map<Long, Boolean> loaded = new HashMap<>(missing.size());
+            for (Long userId : missing) {
+                loaded.put(userId, found.contains(userId));
+            }
+            return loaded;
+        });
+
+        Set<Long> existing = new HashSet<>(known.size());
+        known.forEach((userId, exists) -> {
+            if (exists) {
+                existing.add(userId);
+            }
+        });
+        return existing;
+    }
+
+    /**
+     * Record a newly created user
+     */
+    public void markExists(Long userId) {
+        cache.put(userId, Boolean.TRUE);
+    }
+}
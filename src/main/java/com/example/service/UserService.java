@@ -17,6 +17,8 @@ public class UserService {
     private UserRepository userRepository;
     @Autowired
     private PasswordEncoder passwordEncoder;
+    @Autowired
+    private UserExistenceCache userExistenceCache;
 
     public Users createUser(CreateUserRequest request) {
         // Check if user already exists by email
@@ -39,7 +41,9 @@ public class UserService {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        return userRepository.save(user);
+        Users savedUser = userRepository.save(user);
+        userExistenceCache.markExists(savedUser.getUserId());
+        return savedUser;
     }
     public boolean verifyPassword(String rawPassword, String encodedPassword) {
         return passwordEncoder.matches(rawPassword, encodedPassword);
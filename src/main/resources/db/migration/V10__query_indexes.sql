@@ -0,0 +1,9 @@
+-- Indexes for the repository queries that scanned orders until now.
+-- SchemaIndexPlanTest checks that the queries actually use them.
+
+-- A user's orders, newest first, and the keyset pages after that (OrderRepository.findByUserId...,
+-- findPageByUserIdBefore). order_id is the tie-breaker of the sort, so no filesort is needed.
+CREATE INDEX idx_orders_user_created ON orders (user_id, created_at, order_id);
+
+-- Sweeps by status and age, e.g. orders stuck in PENDING or PAYMENT_PENDING
+CREATE INDEX idx_orders_status_updated ON orders (status, updated_at);
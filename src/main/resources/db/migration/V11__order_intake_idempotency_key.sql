@@ -0,0 +1,6 @@
+-- Idempotency-Key of asynchronously accepted orders, scoped by user. Unique, so a retry
+-- that reaches any instance finds the original intake instead of accepting a second one.
+
+ALTER TABLE order_intakes ADD COLUMN idempotency_key VARCHAR(255);
+
+CREATE UNIQUE INDEX uk_order_intakes_idempotency_key ON order_intakes (idempotency_key);
@@ -0,0 +1,9 @@
+-- Summaries for the orders placed before the read model existed. Runs once; orders placed
+-- since V6 already have theirs, written in the same transaction as the order.
+
+INSERT INTO order_summaries (order_id, user_id, status, total_amount, item_count, created_at)
+SELECT o.order_id, o.user_id, o.status, o.total_amount,
+       (SELECT COUNT(*) FROM order_items i WHERE i.order_id = o.order_id),
+       o.created_at
+FROM orders o
+WHERE NOT EXISTS (SELECT 1 FROM order_summaries s WHERE s.order_id = o.order_id);
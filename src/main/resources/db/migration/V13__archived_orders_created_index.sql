@@ -0,0 +1,4 @@
+-- Newest archived order, read by OrderArchiveService after each run to decide which
+-- order list pages need to check the archive
+
+CREATE INDEX idx_archived_orders_created ON archived_orders (created_at);
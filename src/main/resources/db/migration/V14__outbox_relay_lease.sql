@@ -0,0 +1,11 @@
+-- Which instance runs OutboxRelay. One at a time, so each order's events reach Kafka in
+-- order; another instance takes over once the holder's lease has expired.
+
+CREATE TABLE outbox_relay_lease (
+    name       VARCHAR(64)  NOT NULL,
+    owner      VARCHAR(64),
+    expires_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (name)
+);
+
+INSERT INTO outbox_relay_lease (name, owner, expires_at) VALUES ('outbox-relay', NULL, '1970-01-01 00:00:00');
@@ -0,0 +1,13 @@
+-- Idempotency-Key of synchronous POST /api/v1/orders, written in the order's transaction.
+-- The primary key makes a retry that lands on another instance replay the order instead
+-- of placing it again.
+
+CREATE TABLE order_idempotency_keys (
+    idempotency_key VARCHAR(255) NOT NULL,
+    order_id        BIGINT       NOT NULL,
+    request_hash    VARCHAR(64)  NOT NULL,
+    created_at      DATETIME(6)  NOT NULL,
+    PRIMARY KEY (idempotency_key)
+);
+
+CREATE INDEX idx_order_idempotency_keys_created ON order_idempotency_keys (created_at);
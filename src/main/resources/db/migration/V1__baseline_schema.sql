@@ -0,0 +1,50 @@
+-- The schema as spring.jpa.hibernate.ddl-auto=update created it on MySQL before migrations
+-- took over: the three tables of the original service. Databases from that time are
+-- baselined at this version (spring.flyway.baseline-version=1) and run everything after it.
+--
+-- Constraint names are the ones Hibernate generated (hashes of table and column names),
+-- so new and upgraded databases end up identical. MySQL names the index behind a foreign
+-- key after the constraint; it is created explicitly here so H2 does the same.
+
+CREATE TABLE users (
+    user_id      BIGINT       NOT NULL AUTO_INCREMENT,
+    username     VARCHAR(255),
+    password     VARCHAR(255),
+    email        VARCHAR(255) NOT NULL,
+    phone_number VARCHAR(255),
+    address      VARCHAR(255),
+    created_at   DATETIME(6),
+    PRIMARY KEY (user_id)
+);
+
+ALTER TABLE users
+    ADD CONSTRAINT UK6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email);
+
+CREATE TABLE orders (
+    order_id         BIGINT         NOT NULL AUTO_INCREMENT,
+    user_id          BIGINT         NOT NULL,
+    status           ENUM ('PENDING', 'PLACED', 'INVENTORY_RESERVED', 'PAYMENT_PENDING', 'CONFIRMED',
+                         'COMPLETED', 'CANCELLED') NOT NULL,
+    total_amount     DECIMAL(10, 2) NOT NULL,
+    shipping_address VARCHAR(255),
+    created_at       DATETIME(6)    NOT NULL,
+    updated_at       DATETIME(6),
+    PRIMARY KEY (order_id)
+);
+
+CREATE TABLE order_items (
+    id             BIGINT         NOT NULL AUTO_INCREMENT,
+    order_id       BIGINT         NOT NULL,
+    product_id     BIGINT         NOT NULL,
+    product_name   VARCHAR(255)   NOT NULL,
+    product_sku    VARCHAR(255)   NOT NULL,
+    quantity       INT            NOT NULL,
+    price_at_order DECIMAL(10, 2) NOT NULL,
+    subtotal       DECIMAL(10, 2) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX FKbioxgbv59vetrxe0ejfubep1w ON order_items (order_id);
+
+ALTER TABLE order_items
+    ADD CONSTRAINT FKbioxgbv59vetrxe0ejfubep1w FOREIGN KEY (order_id) REFERENCES orders (order_id);
@@ -0,0 +1,14 @@
+-- Transactional outbox: order events are written here with the order, OutboxRelay publishes them
+
+CREATE TABLE outbox_events (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    aggregate_id BIGINT       NOT NULL,
+    event_type   VARCHAR(50)  NOT NULL,
+    topic        VARCHAR(255) NOT NULL,
+    payload      LONGTEXT     NOT NULL,
+    created_at   DATETIME(6)  NOT NULL,
+    sent_at      DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_outbox_sent_at_id ON outbox_events (sent_at, id);
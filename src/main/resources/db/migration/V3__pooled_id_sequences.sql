@@ -0,0 +1,14 @@
+-- Order and order item IDs come from pooled sequences (allocationSize 50). MySQL has no
+-- sequences, so Hibernate keeps each in a one-row table. They start one allocation block
+-- past the highest AUTO_INCREMENT ID already in use, so new IDs never collide with old rows.
+-- The AUTO_INCREMENT attribute stays on the columns; Hibernate always supplies the ID now.
+
+CREATE TABLE order_seq (
+    next_val BIGINT
+);
+INSERT INTO order_seq (next_val) SELECT COALESCE(MAX(order_id), 0) + 51 FROM orders;
+
+CREATE TABLE order_item_seq (
+    next_val BIGINT
+);
+INSERT INTO order_item_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM order_items;
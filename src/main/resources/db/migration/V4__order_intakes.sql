@@ -0,0 +1,15 @@
+-- Orders accepted asynchronously (Prefer: respond-async), before they are placed
+
+CREATE TABLE order_intakes (
+    intake_id      VARCHAR(36)  NOT NULL,
+    user_id        BIGINT       NOT NULL,
+    payload        LONGTEXT     NOT NULL,
+    status         ENUM ('ACCEPTED', 'PROCESSING', 'PLACED', 'FAILED') NOT NULL,
+    order_id       BIGINT,
+    failure_reason VARCHAR(255),
+    accepted_at    DATETIME(6)  NOT NULL,
+    updated_at     DATETIME(6),
+    PRIMARY KEY (intake_id)
+);
+
+CREATE INDEX idx_order_intakes_status_updated ON order_intakes (status, updated_at);
@@ -0,0 +1,3 @@
+-- Optimistic locking on orders; existing rows start at version 0
+
+ALTER TABLE orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
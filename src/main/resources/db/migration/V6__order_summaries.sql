@@ -0,0 +1,14 @@
+-- Read model for order history lists, one row per order
+
+CREATE TABLE order_summaries (
+    order_id     BIGINT         NOT NULL,
+    user_id      BIGINT         NOT NULL,
+    status       ENUM ('PENDING', 'PLACED', 'INVENTORY_RESERVED', 'PAYMENT_PENDING', 'CONFIRMED',
+                     'COMPLETED', 'CANCELLED') NOT NULL,
+    total_amount DECIMAL(10, 2) NOT NULL,
+    item_count   INT            NOT NULL,
+    created_at   DATETIME(6)    NOT NULL,
+    PRIMARY KEY (order_id)
+);
+
+CREATE INDEX idx_order_summaries_user_created ON order_summaries (user_id, created_at, order_id);
@@ -0,0 +1,7 @@
+-- Outbox payloads are the encoded event bytes (EventCodec), tagged with the codec's content type.
+-- Rows written before this were JSON text, which converts to the same bytes.
+
+ALTER TABLE outbox_events MODIFY COLUMN payload LONGBLOB NOT NULL;
+
+ALTER TABLE outbox_events ADD COLUMN content_type VARCHAR(64) NOT NULL DEFAULT 'application/json';
+ALTER TABLE outbox_events ALTER COLUMN content_type DROP DEFAULT;
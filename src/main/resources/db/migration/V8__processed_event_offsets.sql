@@ -0,0 +1,8 @@
+-- High-water marks of the inventory event deduplicator, one row per topic partition
+
+CREATE TABLE processed_event_offsets (
+    topic_partition VARCHAR(255) NOT NULL,
+    next_offset     BIGINT       NOT NULL,
+    updated_at      DATETIME(6)  NOT NULL,
+    PRIMARY KEY (topic_partition)
+);
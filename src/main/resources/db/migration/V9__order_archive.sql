@@ -0,0 +1,35 @@
+-- Finished orders moved out of orders/order_items by OrderArchiveService.
+-- Optional monthly range partitioning: db/mysql/archive-partitioning.sql
+
+CREATE TABLE archived_orders (
+    order_id         BIGINT         NOT NULL,
+    user_id          BIGINT         NOT NULL,
+    status           ENUM ('PENDING', 'PLACED', 'INVENTORY_RESERVED', 'PAYMENT_PENDING', 'CONFIRMED',
+                         'COMPLETED', 'CANCELLED') NOT NULL,
+    total_amount     DECIMAL(10, 2) NOT NULL,
+    shipping_address VARCHAR(255),
+    created_at       DATETIME(6)    NOT NULL,
+    updated_at       DATETIME(6),
+    archived_at      DATETIME(6)    NOT NULL,
+    PRIMARY KEY (order_id)
+);
+
+CREATE INDEX idx_archived_orders_user_created ON archived_orders (user_id, created_at, order_id);
+
+CREATE TABLE archived_order_items (
+    id               BIGINT         NOT NULL,
+    order_id         BIGINT         NOT NULL,
+    order_created_at DATETIME(6)    NOT NULL,
+    product_id       BIGINT         NOT NULL,
+    product_name     VARCHAR(255)   NOT NULL,
+    product_sku      VARCHAR(255)   NOT NULL,
+    quantity         INT            NOT NULL,
+    price_at_order   DECIMAL(10, 2) NOT NULL,
+    subtotal         DECIMAL(10, 2) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_archived_order_items_order ON archived_order_items (order_id);
+
+-- The archiver's oldest-first scan, also the newest-first admin listing
+CREATE INDEX idx_orders_created ON orders (created_at, order_id);
@@ -0,0 +1,62 @@
+-- Optional: range-partition the archive tables by order creation month (MySQL 8).
+--
+-- Not applied by the application. Run it once, by hand, after the archive tables exist
+-- (while they are still small: the ALTERs rebuild the table). Afterwards, dropping a month
+-- of archived orders is a metadata operation instead of a large DELETE:
+--
+--   ALTER TABLE archived_order_items DROP PARTITION p2025_01;
+--   ALTER TABLE archived_orders DROP PARTITION p2025_01;
+--
+-- and new months are split off the catch-all partition ahead of time:
+--
+--   ALTER TABLE archived_orders REORGANIZE PARTITION pmax INTO (
+--       PARTITION p2026_01 VALUES LESS THAN ('2026-02-01'),
+--       PARTITION pmax VALUES LESS THAN (MAXVALUE));
+--   (same for archived_order_items)
+--
+-- Only the archive tables are partitioned: MySQL partitioning rules out foreign keys and
+-- needs the partitioning column in every unique key, which orders/order_items can't give up.
+-- The archive tables have neither, and the extra primary key column changes nothing for
+-- the application, which only looks rows up by order ID.
+
+ALTER TABLE archived_orders
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (order_id, created_at);
+
+ALTER TABLE archived_orders
+    PARTITION BY RANGE COLUMNS (created_at) (
+        PARTITION p2025_01 VALUES LESS THAN ('2025-02-01'),
+        PARTITION p2025_02 VALUES LESS THAN ('2025-03-01'),
+        PARTITION p2025_03 VALUES LESS THAN ('2025-04-01'),
+        PARTITION p2025_04 VALUES LESS THAN ('2025-05-01'),
+        PARTITION p2025_05 VALUES LESS THAN ('2025-06-01'),
+        PARTITION p2025_06 VALUES LESS THAN ('2025-07-01'),
+        PARTITION p2025_07 VALUES LESS THAN ('2025-08-01'),
+        PARTITION p2025_08 VALUES LESS THAN ('2025-09-01'),
+        PARTITION p2025_09 VALUES LESS THAN ('2025-10-01'),
+        PARTITION p2025_10 VALUES LESS THAN ('2025-11-01'),
+        PARTITION p2025_11 VALUES LESS THAN ('2025-12-01'),
+        PARTITION p2025_12 VALUES LESS THAN ('2026-01-01'),
+        PARTITION pmax VALUES LESS THAN (MAXVALUE)
+    );
+
+ALTER TABLE archived_order_items
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, order_created_at);
+
+ALTER TABLE archived_order_items
+    PARTITION BY RANGE COLUMNS (order_created_at) (
+        PARTITION p2025_01 VALUES LESS THAN ('2025-02-01'),
+        PARTITION p2025_02 VALUES LESS THAN ('2025-03-01'),
+        PARTITION p2025_03 VALUES LESS THAN ('2025-04-01'),
+        PARTITION p2025_04 VALUES LESS THAN ('2025-05-01'),
+        PARTITION p2025_05 VALUES LESS THAN ('2025-06-01'),
+        PARTITION p2025_06 VALUES LESS THAN ('2025-07-01'),
+        PARTITION p2025_07 VALUES LESS THAN ('2025-08-01'),
+        PARTITION p2025_08 VALUES LESS THAN ('2025-09-01'),
+        PARTITION p2025_09 VALUES LESS THAN ('2025-10-01'),
+        PARTITION p2025_10 VALUES LESS THAN ('2025-11-01'),
+        PARTITION p2025_11 VALUES LESS THAN ('2025-12-01'),
+        PARTITION p2025_12 VALUES LESS THAN ('2026-01-01'),
+        PARTITION pmax VALUES LESS THAN (MAXVALUE)
+    );
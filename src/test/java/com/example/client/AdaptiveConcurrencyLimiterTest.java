@@ -0,0 +1,82 @@
+package com.example.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(2000);
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+            "test", 10, 2, 20, 0.5, TimeUnit.MILLISECONDS.toNanos(1000), new SimpleMeterRegistry());
+
+    @Test
+    void refusesCallsOverTheLimitWithoutWaiting() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.onIgnored();
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void waitsForAReleasedSlotUpToTheTimeout() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+        }
+        assertThat(limiter.tryAcquire(10, TimeUnit.MILLISECONDS)).isFalse();
+
+        Thread release = Thread.ofVirtual().start(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            limiter.onIgnored();
+        });
+        assertThat(limiter.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+        release.join();
+        assertThat(limiter.getInFlight()).isEqualTo(10);
+    }
+
+    @Test
+    void slowCallsAndFailuresShrinkTheLimitDownToTheMinimum() {
+        limiter.tryAcquire();
+        limiter.onSuccess(SLOW);
+        assertThat(limiter.getLimit()).isEqualTo(5.0);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.onDropped();
+        }
+        assertThat(limiter.getLimit()).isEqualTo(2.0);
+    }
+
+    @Test
+    void fastCallsGrowTheLimitOnlyWhileItIsInUse() {
+        // One call at a time never uses half of the limit: no growth
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.onSuccess(FAST);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(10.0);
+
+        // Saturated: every fast completion adds 1/limit
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 10; i++) {
+                limiter.tryAcquire();
+            }
+            for (int i = 0; i < 10; i++) {
+                limiter.onSuccess(FAST);
+            }
+        }
+        assertThat(limiter.getLimit()).isGreaterThan(12.0).isLessThanOrEqualTo(20.0);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.client;
+
+import com.example.config.OrderMetrics;
+import com.example.dto.OrderItemRequest;
+import com.example.dto.ProductAvailabilityRequest;
+import com.example.dto.ProductAvailabilityResponse;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Per-item fan-out against the concurrency limiter: a cart with more lines than the
+ * limit waits for slots within its deadline instead of being refused.
+ */
+class InventoryServiceClientTest {
+
+    private static final int LIMIT = 4;
+    private static final int ITEM_COUNT = 30;
+
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+            "inventory", LIMIT, LIMIT, LIMIT, 0.9, TimeUnit.SECONDS.toNanos(1), meterRegistry);
+
+    private final InventoryServiceClient client = new InventoryServiceClient(restTemplate,
+            new ProductSnapshotCache(meterRegistry, false, 100, 30), executor, new OrderMetrics(meterRegistry),
+            CircuitBreaker.ofDefaults("inventory"), limiter, "http://inventory", false, 3000);
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void cartLargerThanTheLimitWaitsForSlots() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        when(restTemplate.postForObject(anyString(), any(), eq(ProductAvailabilityResponse.class)))
+                .thenAnswer(invocation -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(20);
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                    ProductAvailabilityRequest request = invocation.getArgument(1);
+                    return ProductAvailabilityResponse.builder()
+                            .available(true)
+                            .productId(request.getProductId())
+                            .availableQuantity(100)
+                            .build();
+                });
+
+        List<OrderItemRequest> items = new ArrayList<>(ITEM_COUNT);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            items.add(OrderItemRequest.builder().productId(1000L + i).quantity(1).build());
+        }
+
+        List<ProductAvailabilityResponse> responses = client.checkBulkAvailability(items);
+
+        assertThat(responses).extracting(ProductAvailabilityResponse::getProductId)
+                .containsExactlyElementsOf(items.stream().map(OrderItemRequest::getProductId).toList());
+        assertThat(peak.get()).isLessThanOrEqualTo(LIMIT);
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(meterRegistry.get("concurrency.limiter.rejected").counter().count()).isZero();
+    }
+}
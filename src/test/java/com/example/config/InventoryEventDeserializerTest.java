@@ -0,0 +1,61 @@
+package com.example.config;
+
+import com.example.dto.StockReleasedEvent;
+import com.example.dto.StockReservationFailedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InventoryEventDeserializerTest {
+
+    private static final String TOPIC = "inventory-events";
+
+    private static final byte[] STOCK_RELEASED = """
+            {"orderId": 42, "userId": 7, "reservationId": "RES-42", "eventType": "STOCK_RELEASED",
+             "releasedAt": "2026-01-29T10:30:00", "warehouse": {"id": 3, "zone": "EU"}}
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final InventoryEventDeserializer deserializer = new InventoryEventDeserializer(objectMapper);
+
+    @Test
+    void bindsToEventClassFromPayloadField() {
+        Object event = deserializer.deserialize(TOPIC, new RecordHeaders(), STOCK_RELEASED);
+
+        assertThat(event).isInstanceOf(StockReleasedEvent.class);
+        assertThat(((StockReleasedEvent) event).getOrderId()).isEqualTo(42L);
+        assertThat(((StockReleasedEvent) event).getUserId()).isEqualTo(7L);
+    }
+
+    @Test
+    void eventTypeHeaderWinsOverPayload() {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(InventoryEventDeserializer.EVENT_TYPE_HEADER,
+                "STOCK_RESERVATION_FAILED".getBytes(StandardCharsets.UTF_8));
+
+        Object event = deserializer.deserialize(TOPIC, headers,
+                "{\"orderId\": 5, \"reason\": \"OUT_OF_STOCK\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(event).isInstanceOf(StockReservationFailedEvent.class);
+        assertThat(((StockReservationFailedEvent) event).getReason()).isEqualTo("OUT_OF_STOCK");
+    }
+
+    @Test
+    void unknownEventTypeIsSkipped() {
+        byte[] data = "{\"payload\": {\"nested\": [1, 2, 3]}, \"eventType\": \"SOMETHING_ELSE\"}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        assertThat(deserializer.deserialize(TOPIC, new RecordHeaders(), data)).isNull();
+        assertThat(deserializer.deserialize(TOPIC, new RecordHeaders(), "{}".getBytes(StandardCharsets.UTF_8)))
+                .isNull();
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.kafka;
+
+import com.example.client.ProductSnapshotCache;
+import com.example.config.EventCodecSerializer;
+import com.example.config.KeyOrderedExecutor;
+import com.example.config.OrderMetrics;
+import com.example.dto.StockReleasedEvent;
+import com.example.exception.OrderException;
+import com.example.kafka.codec.JsonEventCodec;
+import com.example.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * One failing order in a poll: the rest are applied, the failing event and the later
+ * event for the same order go to the retry topic in order, and the DLT after the last tier.
+ * The order stays parked across polls until each of its forwarded events is released.
+ */
+@EmbeddedKafka(partitions = 1, topics = {"inventory-events", "inventory-events-retry-0", "inventory-events-dlt"})
+class InventoryEventRetryRouterTest {
+
+    private static final long BAD_ORDER = 13L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final KeyOrderedExecutor lanes = new KeyOrderedExecutor("test-lane-", 2, false);
+    private final ParkedOrders parkedOrders = new ParkedOrders();
+
+    @AfterEach
+    void closeLanes() {
+        lanes.close();
+    }
+
+    @Test
+    void failingEventIsRetriedThenDeadLetteredWithoutHoldingBackTheRest(EmbeddedKafkaBroker broker) {
+        List<Long> applied = new ArrayList<>();
+        OrderService orderService = mock(OrderService.class);
+        doAnswer(invocation -> {
+            List<?> events = invocation.getArgument(0);
+            for (Object event : events) {
+                if (((StockReleasedEvent) event).getOrderId() == BAD_ORDER) {
+                    throw new OrderException("Simulated failure for order " + BAD_ORDER);
+                }
+            }
+            synchronized (applied) {
+                events.forEach(event -> applied.add(((StockReleasedEvent) event).getOrderId()));
+            }
+            return null;
+        }).when(orderService).applyInventoryEvents(anyList());
+
+        InventoryEventRetryRouter router = new InventoryEventRetryRouter(template(broker),
+                new SimpleMeterRegistry(), "inventory-events", new long[]{0}, 10_000);
+        OrderEventConsumer consumer = new OrderEventConsumer(orderService, mock(ProductSnapshotCache.class),
+                new OrderMetrics(new SimpleMeterRegistry()), lanes, router, mock(InventoryEventDeduplicator.class),
+                parkedOrders);
+
+        List<ConsumerRecord<String, Object>> poll = new ArrayList<>();
+        long offset = 0;
+        for (long orderId : new long[]{1, BAD_ORDER, 2, 3, BAD_ORDER, 4}) {
+            poll.add(new ConsumerRecord<>("inventory-events", 0, offset++, String.valueOf(orderId), released(orderId)));
+        }
+
+        consumer.handleInventoryEvents(poll);
+
+        assertThat(applied).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+        List<ConsumerRecord<String, byte[]>> retried = readAll(broker, "inventory-events-retry-0", 2);
+        assertThat(retried).extracting(ConsumerRecord::key).containsExactly("13", "13");
+        assertThat(header(retried.get(0), InventoryEventRetryRouter.ATTEMPT_HEADER)).isEqualTo("1");
+        assertThat(parkedOrders.isParked(BAD_ORDER)).isTrue();
+
+        // A later poll: the parked order's new event goes straight behind the others
+        List<ConsumerRecord<String, Object>> nextPoll = new ArrayList<>();
+        nextPoll.add(new ConsumerRecord<>("inventory-events", 0, offset++, String.valueOf(BAD_ORDER), released(BAD_ORDER)));
+        nextPoll.add(new ConsumerRecord<>("inventory-events", 0, offset, "5", released(5)));
+        consumer.handleInventoryEvents(nextPoll);
+        assertThat(applied).contains(5L);
+        retried = readAll(broker, "inventory-events-retry-0", 3);
+        assertThat(header(retried.get(2), "kafka_dlt-exception-message")).contains("Held back");
+
+        // Each parked event applied or dead-lettered releases one
+        parkedOrders.release(BAD_ORDER);
+        parkedOrders.release(BAD_ORDER);
+        assertThat(parkedOrders.isParked(BAD_ORDER)).isTrue();
+        parkedOrders.release(BAD_ORDER);
+        assertThat(parkedOrders.isParked(BAD_ORDER)).isFalse();
+
+        // Past the only tier: the next failure dead-letters it
+        router.forward(retried.get(0), new OrderException("Still failing"));
+        List<ConsumerRecord<String, byte[]>> dead = readAll(broker, "inventory-events-dlt", 1);
+        assertThat(header(dead.get(0), "kafka_dlt-original-topic")).isEqualTo("inventory-events");
+        assertThat(header(dead.get(0), InventoryEventRetryRouter.ATTEMPT_HEADER)).isEqualTo("2");
+    }
+
+    private KafkaTemplate<String, Object> template(EmbeddedKafkaBroker broker) {
+        Map<String, Object> config = Map.of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(config, new StringSerializer(),
+                new EventCodecSerializer(new JsonEventCodec(objectMapper))));
+    }
+
+    private static StockReleasedEvent released(long orderId) {
+        return StockReleasedEvent.builder()
+                .orderId(orderId)
+                .userId(7L)
+                .reservationId("RES-" + orderId)
+                .eventType("STOCK_RELEASED")
+                .build();
+    }
+
+    private static List<ConsumerRecord<String, byte[]>> readAll(EmbeddedKafkaBroker broker, String topic, int expected) {
+        Map<String, Object> config = Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        try (KafkaConsumer<String, byte[]> consumer =
+                     new KafkaConsumer<>(config, new StringDeserializer(), new ByteArrayDeserializer())) {
+            TopicPartition partition = new TopicPartition(topic, 0);
+            consumer.assign(List.of(partition));
+            consumer.seekToBeginning(List.of(partition));
+
+            List<ConsumerRecord<String, byte[]>> records = new ArrayList<>();
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (records.size() < expected && System.currentTimeMillis() < deadline) {
+                consumer.poll(Duration.ofMillis(200)).forEach(records::add);
+            }
+            assertThat(records).hasSize(expected);
+            return records;
+        }
+    }
+
+    private static String header(ConsumerRecord<?, ?> record, String name) {
+        return new String(record.headers().lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+}
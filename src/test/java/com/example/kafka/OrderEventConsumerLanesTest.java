@@ -0,0 +1,161 @@
+package com.example.kafka;
+
+import com.example.client.ProductSnapshotCache;
+import com.example.config.InventoryEventDeserializer;
+import com.example.config.KeyOrderedExecutor;
+import com.example.config.OrderMetrics;
+import com.example.dto.StockReleasedEvent;
+import com.example.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Inventory events through a real broker and listener containers into OrderEventConsumer.
+ *
+ * OrderService is stubbed to cost a fixed time per event (standing in for the per-row
+ * database work), to count how many lanes are applying events at the same moment, and to
+ * record the order each order's events arrive in. One lane never overlaps with itself;
+ * eight do overlap, never more than eight, and per-order order survives the fan-out.
+ */
+@EmbeddedKafka(partitions = 3, topics = {"inventory-events-1", "inventory-events-8"})
+class OrderEventConsumerLanesTest {
+
+    private static final int ORDERS = 200;
+    private static final int EVENTS_PER_ORDER = 20;
+    private static final long COST_PER_EVENT_NANOS = TimeUnit.MICROSECONDS.toNanos(250);
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void lanesApplyOrdersInParallelAndKeepPerOrderOrder(EmbeddedKafkaBroker broker) throws Exception {
+        assertThat(run(broker, "inventory-events-1", 1)).isEqualTo(1);
+        assertThat(run(broker, "inventory-events-8", 8)).isBetween(2, 8);
+    }
+
+    /**
+     * Publish every event, consume them all, return the peak number of lanes applying at once
+     */
+    private int run(EmbeddedKafkaBroker broker, String topic, int laneCount) throws Exception {
+        int total = ORDERS * EVENTS_PER_ORDER;
+        Map<Long, List<String>> seen = new ConcurrentHashMap<>();
+        CountDownLatch applied = new CountDownLatch(total);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        OrderService orderService = mock(OrderService.class);
+        doAnswer(invocation -> {
+            List<?> events = invocation.getArgument(0);
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                for (Object event : events) {
+                    StockReleasedEvent released = (StockReleasedEvent) event;
+                    LockSupport.parkNanos(COST_PER_EVENT_NANOS);
+                    seen.computeIfAbsent(released.getOrderId(), id -> new ArrayList<>())
+                            .add(released.getReservationId());
+                    applied.countDown();
+                }
+            } finally {
+                running.decrementAndGet();
+            }
+            return null;
+        }).when(orderService).applyInventoryEvents(anyList());
+
+        publish(broker, topic);
+
+        try (KeyOrderedExecutor lanes = new KeyOrderedExecutor("test-lane-", laneCount, false)) {
+            OrderEventConsumer consumer = new OrderEventConsumer(orderService, mock(ProductSnapshotCache.class),
+                    new OrderMetrics(new SimpleMeterRegistry()), lanes, mock(InventoryEventRetryRouter.class),
+                    mock(InventoryEventDeduplicator.class), new ParkedOrders());
+
+            ContainerProperties containerProperties = new ContainerProperties(topic);
+            containerProperties.setAckMode(ContainerProperties.AckMode.BATCH);
+            containerProperties.setMessageListener(
+                    (BatchMessageListener<String, Object>) consumer::handleInventoryEvents);
+            ConcurrentMessageListenerContainer<String, Object> container =
+                    new ConcurrentMessageListenerContainer<>(consumerFactory(broker, topic), containerProperties);
+            container.setConcurrency(3);
+
+            container.start();
+            try {
+                assertThat(applied.await(60, TimeUnit.SECONDS)).isTrue();
+            } finally {
+                container.stop();
+            }
+
+            assertThat(seen).hasSize(ORDERS);
+            for (List<String> sequence : seen.values()) {
+                assertThat(sequence).isSortedAccordingTo((a, b) -> Integer.compare(seq(a), seq(b)));
+            }
+            return peak.get();
+        }
+    }
+
+    private void publish(EmbeddedKafkaBroker broker, String topic) throws Exception {
+        Map<String, Object> config = Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.LINGER_MS_CONFIG, 5);
+        try (KafkaProducer<String, byte[]> producer =
+                     new KafkaProducer<>(config, new StringSerializer(), new ByteArraySerializer())) {
+            // Interleave orders so every poll mixes many of them
+            for (int seq = 0; seq < EVENTS_PER_ORDER; seq++) {
+                for (long orderId = 1; orderId <= ORDERS; orderId++) {
+                    StockReleasedEvent event = StockReleasedEvent.builder()
+                            .orderId(orderId)
+                            .userId(7L)
+                            .reservationId(orderId + "-" + seq)
+                            .eventType("STOCK_RELEASED")
+                            .build();
+                    producer.send(new ProducerRecord<>(topic, String.valueOf(orderId),
+                            objectMapper.writeValueAsBytes(event)));
+                }
+            }
+            producer.flush();
+        }
+    }
+
+    private DefaultKafkaConsumerFactory<String, Object> consumerFactory(EmbeddedKafkaBroker broker, String topic) {
+        Map<String, Object> config = Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ConsumerConfig.GROUP_ID_CONFIG, topic + "-group",
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+                ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+        return new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(),
+                new InventoryEventDeserializer(objectMapper));
+    }
+
+    private static int seq(String reservationId) {
+        return Integer.parseInt(reservationId.substring(reservationId.indexOf('-') + 1));
+    }
+}
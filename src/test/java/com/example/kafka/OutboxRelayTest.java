@@ -0,0 +1,82 @@
+package com.example.kafka;
+
+import com.example.entities.OutboxEvent;
+import com.example.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A failed send holds back the rest of its order: later rows are never handed to the
+ * producer, while other orders in the batch go out and are marked sent. Instances without
+ * the relay lease don't touch the outbox.
+ */
+class OutboxRelayTest {
+
+    private static final long BAD_ORDER = 2L;
+
+    @Test
+    void failedRowStopsLaterRowsOfTheSameOrder() {
+        List<OutboxEvent> batch = List.of(
+                event(1, 1L), event(2, BAD_ORDER), event(3, 1L), event(4, BAD_ORDER), event(5, 3L));
+        OutboxEventRepository repository = mock(OutboxEventRepository.class);
+        when(repository.findBySentAtIsNullOrderByIdAsc(any(Pageable.class))).thenReturn(batch);
+
+        List<Long> handedToProducer = new ArrayList<>();
+        OrderEventProducer producer = mock(OrderEventProducer.class);
+        doAnswer(invocation -> {
+            OutboxEvent event = invocation.getArgument(0);
+            handedToProducer.add(event.getId());
+            return event.getAggregateId() == BAD_ORDER
+                    ? CompletableFuture.failedFuture(new IllegalStateException("Simulated broker error"))
+                    : CompletableFuture.completedFuture(null);
+        }).when(producer).send(any(OutboxEvent.class));
+
+        OutboxRelayLease lease = mock(OutboxRelayLease.class);
+        when(lease.tryAcquire()).thenReturn(true);
+
+        new OutboxRelay(repository, producer, lease, new SimpleMeterRegistry(), 200, 1_000, 24).relay();
+
+        // First round: the oldest row of each order; second round: order 1's next row only
+        assertThat(handedToProducer).containsExactly(1L, 2L, 5L, 3L);
+        verify(repository).markSent(eq(List.of(1L, 5L, 3L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void instanceWithoutTheLeaseDoesNotRelay() {
+        OutboxEventRepository repository = mock(OutboxEventRepository.class);
+        OrderEventProducer producer = mock(OrderEventProducer.class);
+        OutboxRelayLease lease = mock(OutboxRelayLease.class);
+        when(lease.tryAcquire()).thenReturn(false);
+
+        new OutboxRelay(repository, producer, lease, new SimpleMeterRegistry(), 200, 1_000, 24).relay();
+
+        verifyNoInteractions(repository, producer);
+    }
+
+    private static OutboxEvent event(long id, long orderId) {
+        return OutboxEvent.builder()
+                .id(id)
+                .aggregateId(orderId)
+                .eventType("ORDER_CREATED")
+                .topic("order-events")
+                .payload(new byte[0])
+                .contentType("application/json")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.kafka;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProcessedOffsetWindowTest {
+
+    @Test
+    void outOfOrderMarksAdvanceBaseOnceContiguous() {
+        ProcessedOffsetWindow window = new ProcessedOffsetWindow(16, 100);
+
+        window.markProcessed(102);
+        window.markProcessed(101);
+        assertThat(window.base()).isEqualTo(100);
+        assertThat(window.isProcessed(100)).isFalse();
+        assertThat(window.isProcessed(102)).isTrue();
+        assertThat(window.takeDirtyBase()).isEqualTo(-1);
+
+        window.markProcessed(100);
+        assertThat(window.base()).isEqualTo(103);
+        assertThat(window.isProcessed(99)).isTrue();
+        assertThat(window.takeDirtyBase()).isEqualTo(103);
+        assertThat(window.takeDirtyBase()).isEqualTo(-1);
+    }
+
+    @Test
+    void marksBeyondTheWindowAreDroppedNeverSkipped() {
+        ProcessedOffsetWindow window = new ProcessedOffsetWindow(4, 0);
+
+        window.markProcessed(10);
+        assertThat(window.isProcessed(10)).isFalse();
+
+        window.advanceTo(11);
+        assertThat(window.isProcessed(10)).isTrue();
+        assertThat(window.isProcessed(11)).isFalse();
+    }
+
+    @Test
+    void advanceKeepsMarksAboveTheNewBase() {
+        ProcessedOffsetWindow window = new ProcessedOffsetWindow(16, 0);
+        window.markProcessed(5);
+
+        window.advanceTo(3);
+        assertThat(window.base()).isEqualTo(3);
+        assertThat(window.isProcessed(4)).isFalse();
+        assertThat(window.isProcessed(5)).isTrue();
+    }
+}
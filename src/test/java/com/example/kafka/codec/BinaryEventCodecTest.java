@@ -0,0 +1,107 @@
+package com.example.kafka.codec;
+
+import com.example.config.InventoryEventDeserializer;
+import com.example.dto.OrderCompletedEvent;
+import com.example.dto.OrderCreatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryEventCodecTest {
+
+    private final BinaryEventCodec codec = new BinaryEventCodec();
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void orderCreatedRoundTrips() {
+        OrderCreatedEvent event = orderCreated();
+
+        assertThat(codec.decode(codec.encode(event), null)).isEqualTo(event);
+    }
+
+    @Test
+    void nullFieldsAndLargeDecimalsRoundTrip() {
+        OrderCreatedEvent event = OrderCreatedEvent.builder()
+                .orderId(-1L)
+                .items(List.of(OrderCreatedEvent.OrderItemDto.builder()
+                        .productId(Long.MAX_VALUE)
+                        .price(new BigDecimal("123456789012345678901234567890.123456"))
+                        .build()))
+                .totalAmount(new BigDecimal("1E+3"))
+                .eventType("ORDER_CREATED")
+                .build();
+
+        assertThat(codec.decode(codec.encode(event), null)).isEqualTo(event);
+    }
+
+    @Test
+    void binaryIsSmallerThanJson() {
+        OrderCreatedEvent event = orderCreated();
+
+        int binary = codec.encode(event).length;
+        int json = new JsonEventCodec(objectMapper).encode(event).length;
+
+        assertThat(binary * 2).isLessThan(json);
+    }
+
+    @Test
+    void truncatedPayloadIsRejected() {
+        byte[] encoded = codec.encode(orderCreated());
+
+        assertThatThrownBy(() -> codec.decode(Arrays.copyOf(encoded, encoded.length / 2), null))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void deserializerPicksCodecFromContentTypeHeader() {
+        InventoryEventDeserializer deserializer = new InventoryEventDeserializer(objectMapper);
+        OrderCompletedEvent event = OrderCompletedEvent.builder()
+                .orderId(7L)
+                .userId(3L)
+                .eventType("ORDER_COMPLETED")
+                .build();
+
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(EventCodec.CONTENT_TYPE_HEADER, BinaryEventCodec.CONTENT_TYPE.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(deserializer.deserialize("order-events", headers, codec.encode(event))).isEqualTo(event);
+    }
+
+    private static OrderCreatedEvent orderCreated() {
+        List<OrderCreatedEvent.OrderItemDto> items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            items.add(OrderCreatedEvent.OrderItemDto.builder()
+                    .productId(1000L + i)
+                    .productName("Product " + i)
+                    .productSku("SKU-" + (1000 + i))
+                    .quantity(2)
+                    .price(new BigDecimal("19.99"))
+                    .build());
+        }
+        return OrderCreatedEvent.builder()
+                .orderId(123_456L)
+                .userId(42L)
+                .items(items)
+                .totalAmount(new BigDecimal("199.90"))
+                .shippingAddress("123 Main St, City, State 12345")
+                .createdAt(LocalDateTime.of(2026, 1, 29, 10, 30, 15, 123_000_000))
+                .eventType("ORDER_CREATED")
+                .build();
+    }
+}
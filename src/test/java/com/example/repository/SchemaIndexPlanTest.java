@@ -0,0 +1,175 @@
+package com.example.repository;
+
+import com.example.enums.IntakeStatus;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations on H2 in MySQL mode, calls the repository queries they were
+ * written for, and checks that the SQL Hibernate generated for each is planned on its index
+ * rather than as a table scan.
+ */
+@DataJpaTest(properties = {
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:schema-plan;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.example.repository.SchemaIndexPlanTest$CapturedSql"
+})
+// The data is loaded once and committed, so every test plans against the same statistics
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SchemaIndexPlanTest {
+
+    private static final int USERS = 100;
+    private static final int ROWS = 2_000;
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderIntakeRepository intakeRepository;
+
+    @BeforeAll
+    void load() {
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM flyway_schema_history WHERE success", Integer.class))
+                .isEqualTo(15);
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO orders (order_id, user_id, status, total_amount, created_at, updated_at) " +
+                        "VALUES (?, ?, 'COMPLETED', 10.00, ?, ?)",
+                rows(), ROWS, (statement, i) -> {
+                    Timestamp at = Timestamp.valueOf(START.plusMinutes(i));
+                    statement.setLong(1, i);
+                    statement.setLong(2, i % USERS);
+                    statement.setTimestamp(3, at);
+                    statement.setTimestamp(4, at);
+                });
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO order_items (id, order_id, product_id, product_name, product_sku, quantity, " +
+                        "price_at_order, subtotal) VALUES (?, ?, 1, 'Product', 'SKU', 1, 10.00, 10.00)",
+                rows(), ROWS, (statement, i) -> {
+                    statement.setLong(1, i);
+                    statement.setLong(2, i);
+                });
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO order_intakes (intake_id, user_id, payload, status, order_id, accepted_at, updated_at) " +
+                        "VALUES (?, ?, '{}', ?, ?, ?, ?)",
+                rows(), ROWS, (statement, i) -> {
+                    Timestamp at = Timestamp.valueOf(START.plusMinutes(i));
+                    statement.setString(1, "intake-" + i);
+                    statement.setLong(2, i % USERS);
+                    // Mostly placed intakes, a few stuck ones for the recovery sweep to find
+                    statement.setString(3, i % 50 == 0 ? "PROCESSING" : "PLACED");
+                    statement.setLong(4, i);
+                    statement.setTimestamp(5, at);
+                    statement.setTimestamp(6, at);
+                });
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void userOrdersUseUserCreatedIndex() {
+        String firstPage = generated("from orders",
+                () -> orderRepository.findByUserIdOrderByCreatedAtDescOrderIdDesc(7L, PageRequest.ofSize(21)));
+        assertThat(plan(firstPage)).containsIgnoringCase("idx_orders_user_created");
+
+        String nextPage = generated("from orders",
+                () -> orderRepository.findPageByUserIdBefore(7L, START.plusHours(12), 720L, PageRequest.ofSize(21)));
+        assertThat(plan(nextPage)).containsIgnoringCase("idx_orders_user_created");
+    }
+
+    @Test
+    void orderItemsUseForeignKeyIndex() {
+        String items = generated("from order_items",
+                () -> orderRepository.findItemsByOrderIds(List.of(1L, 2L, 3L)));
+        assertThat(plan(items)).containsIgnoringCase("FKbioxgbv59vetrxe0ejfubep1w");
+    }
+
+    @Test
+    void intakeRecoverySweepUsesStatusUpdatedIndex() {
+        String sweep = generated("from order_intakes",
+                () -> intakeRepository.findByStatusAndUpdatedAtBeforeOrderByAcceptedAt(
+                        IntakeStatus.PROCESSING, START.plusHours(6), PageRequest.ofSize(100)));
+        assertThat(plan(sweep)).containsIgnoringCase("idx_order_intakes_status_updated");
+    }
+
+    private static List<Integer> rows() {
+        return IntStream.rangeClosed(1, ROWS).boxed().toList();
+    }
+
+    /**
+     * The statement Hibernate sent for the repository call, the first one reading the given table
+     */
+    private static String generated(String from, Runnable repositoryCall) {
+        CapturedSql.STATEMENTS.clear();
+        repositoryCall.run();
+        return CapturedSql.STATEMENTS.stream()
+                .filter(sql -> sql.toLowerCase().contains(from))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No statement " + from + " in " + CapturedSql.STATEMENTS));
+    }
+
+    /**
+     * EXPLAIN of the generated statement as prepared. The bind values are left null: H2 picks
+     * the index when it prepares the statement, before any value is known.
+     */
+    private String plan(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = explain.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    explain.setObject(i, null);
+                }
+                try (ResultSet plan = explain.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        });
+    }
+
+    /**
+     * Hibernate instantiates this per session factory; the statements go to a static list
+     * so the test can read them back.
+     */
+    public static class CapturedSql implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
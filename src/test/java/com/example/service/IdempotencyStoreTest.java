@@ -0,0 +1,91 @@
+package com.example.service;
+
+import com.example.dto.CreateOrderRequest;
+import com.example.dto.OrderItemRequest;
+import com.example.entities.Order;
+import com.example.enums.OrderStatus;
+import com.example.exception.IdempotencyKeyConflictException;
+import com.example.repository.OrderIdempotencyKeyRepository;
+import com.example.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A retry that lands on another instance (another IdempotencyStore, same database) gets
+ * the original order back instead of placing a second one.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class IdempotencyStoreTest {
+
+    private static final String KEY = "7:retry-me";
+
+    @Autowired
+    private OrderIdempotencyKeyRepository keyRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private final AtomicInteger placed = new AtomicInteger();
+
+    @Test
+    void retryOnAnotherInstanceReplaysTheOrder() {
+        IdempotencyStore.Outcome first = newInstance().execute(KEY, cart(1), this::placeOrder);
+        IdempotencyStore.Outcome retry = newInstance().execute(KEY, cart(1), this::placeOrder);
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.order().getOrderId()).isEqualTo(first.order().getOrderId());
+        assertThat(placed.get()).isEqualTo(1);
+    }
+
+    @Test
+    void keyReusedForAnotherRequestOnAnotherInstanceIsRejected() {
+        newInstance().execute(KEY, cart(1), this::placeOrder);
+
+        IdempotencyStore otherInstance = newInstance();
+        assertThatThrownBy(() -> otherInstance.execute(KEY, cart(2), this::placeOrder))
+                .isInstanceOf(IdempotencyKeyConflictException.class);
+        assertThat(placed.get()).isEqualTo(1);
+    }
+
+    private IdempotencyStore newInstance() {
+        return new IdempotencyStore(keyRepository, orderRepository, new ObjectMapper(), 60, 100, 1_000);
+    }
+
+    /**
+     * Stands in for OrderService.placeOrder(request, inTransaction)
+     */
+    private Order placeOrder(Consumer<Order> inTransaction) {
+        placed.incrementAndGet();
+        Order order = orderRepository.saveAndFlush(Order.builder()
+                .userId(7L)
+                .status(OrderStatus.PENDING)
+                .totalAmount(new BigDecimal("10.00"))
+                .shippingAddress("123 Main St")
+                .build());
+        inTransaction.accept(order);
+        return order;
+    }
+
+    private static CreateOrderRequest cart(int quantity) {
+        return CreateOrderRequest.builder()
+                .userId(7L)
+                .items(List.of(OrderItemRequest.builder().productId(1000L).quantity(quantity).build()))
+                .shippingAddress("123 Main St")
+                .build();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.service;
+
+import com.example.dto.OrderResponse;
+import com.example.entities.Order;
+import com.example.entities.OrderItem;
+import com.example.enums.OrderStatus;
+import com.example.repository.ArchivedOrderRepository;
+import com.example.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Finished orders move to the archive tables with their items, in keyset batches;
+ * live orders stay, and archived ones can still be read back.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class OrderArchiveServiceTest {
+
+    private static final long USER_ID = 7L;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private OrderArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        // No minimum age and batches of two, so the five finished orders take three batches
+        archiveService = new OrderArchiveService(orderRepository, archivedOrderRepository, transactionManager,
+                new SimpleMeterRegistry(), Runnable::run, true, 0, 2, 0, 10);
+    }
+
+    @Test
+    void finishedOrdersAreMovedWithTheirItems() {
+        List<Order> orders = orderRepository.saveAll(List.of(
+                order(OrderStatus.COMPLETED), order(OrderStatus.CANCELLED), order(OrderStatus.PENDING),
+                order(OrderStatus.COMPLETED), order(OrderStatus.CONFIRMED), order(OrderStatus.COMPLETED),
+                order(OrderStatus.CANCELLED)));
+        entityManager.flush();
+        entityManager.clear();
+
+        archiveService.archive();
+        entityManager.clear();
+
+        assertThat(orderRepository.findAll()).extracting(Order::getStatus)
+                .containsExactlyInAnyOrder(OrderStatus.PENDING, OrderStatus.CONFIRMED);
+        assertThat(archivedOrderRepository.count()).isEqualTo(5);
+
+        Long archivedId = orders.get(0).getOrderId();
+        OrderResponse archived = archiveService.findOrder(archivedId).orElseThrow();
+        assertThat(archived.getStatus()).isEqualTo(OrderStatus.COMPLETED);
+        assertThat(archived.getItems()).hasSize(2);
+        assertThat(archiveService.findPage(USER_ID, null, PageRequest.of(0, 10))).hasSize(5)
+                .allSatisfy(order -> assertThat(order.getItems()).hasSize(2));
+    }
+
+    @Test
+    void onlyPagesReachingTheNewestArchivedOrderCheckTheArchive() {
+        assertThat(archiveService.mayHoldOrdersAfter(LocalDateTime.now().minusYears(1))).isFalse();
+
+        orderRepository.saveAll(List.of(order(OrderStatus.COMPLETED), order(OrderStatus.PENDING)));
+        entityManager.flush();
+        entityManager.clear();
+        archiveService.archive();
+
+        LocalDateTime newest = archivedOrderRepository.findNewestCreatedAt();
+        assertThat(archiveService.mayHoldOrdersAfter(newest)).isTrue();
+        assertThat(archiveService.mayHoldOrdersAfter(newest.plusSeconds(1))).isFalse();
+    }
+
+    private static Order order(OrderStatus status) {
+        Order order = Order.builder()
+                .userId(USER_ID)
+                .status(status)
+                .totalAmount(new BigDecimal("20.00"))
+                .shippingAddress("123 Main St")
+                .build();
+        for (int i = 0; i < 2; i++) {
+            order.getOrderItems().add(OrderItem.builder()
+                    .order(order)
+                    .productId(100L + i)
+                    .productName("Product " + i)
+                    .productSku("SKU-" + i)
+                    .quantity(1)
+                    .priceAtOrder(new BigDecimal("10.00"))
+                    .build());
+        }
+        return order;
+    }
+}
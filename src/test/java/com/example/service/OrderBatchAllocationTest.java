@@ -0,0 +1,76 @@
+package com.example.service;
+
+import com.example.dto.OrderItemRequest;
+import com.example.dto.ProductAvailabilityResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stock sharing across the orders of one batch: request order wins, and an order
+ * takes all of its lines or none of them.
+ */
+class OrderBatchAllocationTest {
+
+    private static final Map<Long, ProductAvailabilityResponse> AVAILABILITY = Map.of(
+            1L, product(1L, "Laptop"),
+            2L, product(2L, "Mouse"));
+
+    @Test
+    void ordersAreServedInRequestOrderUntilStockRunsOut() {
+        Map<Long, Integer> remaining = new HashMap<>(Map.of(1L, 3));
+
+        assertThat(OrderService.allocate(List.of(line(1L, 2)), AVAILABILITY, remaining)).isNull();
+        assertThat(OrderService.allocate(List.of(line(1L, 2)), AVAILABILITY, remaining))
+                .isEqualTo("Insufficient stock for product: Laptop. Available: 1, Requested: 2");
+        assertThat(OrderService.allocate(List.of(line(1L, 1)), AVAILABILITY, remaining)).isNull();
+        assertThat(remaining).containsEntry(1L, 0);
+    }
+
+    @Test
+    void failedOrderDoesNotConsumeStock() {
+        Map<Long, Integer> remaining = new HashMap<>(Map.of(1L, 5, 2L, 1));
+
+        String shortage = OrderService.allocate(List.of(line(1L, 4), line(2L, 2)), AVAILABILITY, remaining);
+
+        assertThat(shortage).startsWith("Insufficient stock for product: Mouse");
+        assertThat(remaining).containsEntry(1L, 5).containsEntry(2L, 1);
+    }
+
+    @Test
+    void repeatedLinesForOneProductAreAddedUp() {
+        Map<Long, Integer> remaining = new HashMap<>(Map.of(1L, 3));
+
+        assertThat(OrderService.allocate(List.of(line(1L, 2), line(1L, 2)), AVAILABILITY, remaining))
+                .isEqualTo("Insufficient stock for product: Laptop. Available: 3, Requested: 4");
+    }
+
+    @Test
+    void unavailableProductOnlySharesOutTheReportedQuantity() {
+        ProductAvailabilityResponse shortOnStock = ProductAvailabilityResponse.builder()
+                .available(false).productId(1L).availableQuantity(3).build();
+        ProductAvailabilityResponse discontinued = ProductAvailabilityResponse.builder()
+                .available(false).productId(1L).availableQuantity(50).build();
+
+        assertThat(OrderService.allocatableStock(shortOnStock, 10)).isEqualTo(3);
+        assertThat(OrderService.allocatableStock(discontinued, 10)).isZero();
+        assertThat(OrderService.allocatableStock(product(1L, "Laptop"), 10)).isEqualTo(100);
+    }
+
+    private static OrderItemRequest line(Long productId, int quantity) {
+        return OrderItemRequest.builder().productId(productId).quantity(quantity).build();
+    }
+
+    private static ProductAvailabilityResponse product(Long productId, String name) {
+        return ProductAvailabilityResponse.builder()
+                .available(true)
+                .productId(productId)
+                .productName(name)
+                .availableQuantity(100)
+                .build();
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.service;
+
+import com.example.Controller.OrderController;
+import com.example.client.InventoryServiceClient;
+import com.example.config.OrderMetrics;
+import com.example.dto.CreateOrderRequest;
+import com.example.dto.OrderItemRequest;
+import com.example.dto.ProductAvailabilityResponse;
+import com.example.kafka.OrderEventOutbox;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Orders in flight at once while the Inventory Service is slow, before and after virtual
+ * threads: POST /api/v1/orders is driven through OrderController and placeOrder on request
+ * threads like Tomcat's — a fixed pool of platform threads (server.tomcat.threads.max), or
+ * one virtual thread per request (spring.threads.virtual.enabled=true). The inventory stub
+ * counts the orders waiting on it; the database part runs for real.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(OrderService.class)
+// Requests commit on their own threads, as they would in the service
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderInFlightLoadTest {
+
+    private static final int REQUESTS = 400;
+    private static final int TOMCAT_THREADS = 50;
+    private static final long INVENTORY_LATENCY_MS = 200;
+
+    @MockitoBean
+    private UserExistenceCache userExistenceCache;
+    @MockitoBean
+    private InventoryServiceClient inventoryClient;
+    @MockitoBean
+    private OrderEventOutbox orderEventOutbox;
+    @MockitoBean
+    private OrderMetrics orderMetrics;
+    @MockitoBean
+    private OrderSummaryService orderSummaryService;
+    @MockitoBean
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderService orderService;
+
+    private OrderController orderController;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        orderController = new OrderController(orderService, null, null, null, false, 2);
+        when(userExistenceCache.exists(anyLong())).thenReturn(true);
+        when(inventoryClient.checkBulkAvailability(anyList())).thenAnswer(invocation -> {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(INVENTORY_LATENCY_MS);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return List.of(availability());
+        });
+    }
+
+    @Test
+    void platformRequestThreadsCapOrdersInFlightAtThePoolSize() throws Exception {
+        int placed = placeConcurrently(Executors.newFixedThreadPool(TOMCAT_THREADS));
+
+        assertThat(placed).isEqualTo(REQUESTS);
+        assertThat(peak.get()).isLessThanOrEqualTo(TOMCAT_THREADS);
+    }
+
+    @Test
+    void virtualRequestThreadsKeepEveryWaitingOrderInFlight() throws Exception {
+        int placed = placeConcurrently(Executors.newVirtualThreadPerTaskExecutor());
+
+        assertThat(placed).isEqualTo(REQUESTS);
+        assertThat(peak.get()).isGreaterThan(TOMCAT_THREADS * 3);
+    }
+
+    /**
+     * @return how many requests got 201 Created
+     */
+    private int placeConcurrently(ExecutorService requestThreads) throws Exception {
+        List<Future<ResponseEntity<?>>> responses = new ArrayList<>(REQUESTS);
+        try (requestThreads) {
+            for (int i = 0; i < REQUESTS; i++) {
+                responses.add(requestThreads.submit(() -> orderController.placeOrder(cart(), null, null)));
+            }
+        }
+        int created = 0;
+        for (Future<ResponseEntity<?>> response : responses) {
+            if (response.get().getStatusCode().isSameCodeAs(HttpStatus.CREATED)) {
+                created++;
+            }
+        }
+        return created;
+    }
+
+    private static CreateOrderRequest cart() {
+        return CreateOrderRequest.builder()
+                .userId(1L)
+                .items(List.of(OrderItemRequest.builder().productId(1000L).quantity(1).build()))
+                .shippingAddress("123 Main St")
+                .build();
+    }
+
+    private static ProductAvailabilityResponse availability() {
+        return ProductAvailabilityResponse.builder()
+                .available(true)
+                .productId(1000L)
+                .productName("Product")
+                .productSku("SKU-1000")
+                .currentPrice(new BigDecimal("9.99"))
+                .availableQuantity(100)
+                .build();
+    }
+}
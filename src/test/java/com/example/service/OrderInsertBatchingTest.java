@@ -0,0 +1,109 @@
+package com.example.service;
+
+import com.example.client.InventoryServiceClient;
+import com.example.config.OrderMetrics;
+import com.example.dto.CreateOrderRequest;
+import com.example.dto.OrderItemRequest;
+import com.example.dto.ProductAvailabilityResponse;
+import com.example.entities.Order;
+import com.example.kafka.OrderEventOutbox;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Guards the JDBC batching of placeOrder's persistence step: a 50-line order costs one
+ * INSERT for the order, one batched INSERT for its items and at most one sequence fetch,
+ * not one INSERT per row. The outbox and summary writes are mocked out.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(OrderService.class)
+class OrderInsertBatchingTest {
+
+    private static final int ITEM_COUNT = 50;
+
+    @MockitoBean
+    private UserExistenceCache userExistenceCache;
+    @MockitoBean
+    private InventoryServiceClient inventoryClient;
+    @MockitoBean
+    private OrderEventOutbox orderEventOutbox;
+    @MockitoBean
+    private OrderMetrics orderMetrics;
+    @MockitoBean
+    private OrderSummaryService orderSummaryService;
+    @MockitoBean
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        when(userExistenceCache.exists(anyLong())).thenReturn(true);
+        when(inventoryClient.checkBulkAvailability(anyList()))
+                .thenAnswer(invocation -> availability(invocation.<List<?>>getArgument(0).size()));
+
+        // Initialises both ID sequences, so the measured order only pays for what it uses
+        orderService.placeOrder(cart(1));
+    }
+
+    @Test
+    void fiftyLineOrderIsInsertedInBatches() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Order order = orderService.placeOrder(cart(ITEM_COUNT));
+
+        assertThat(order.getOrderItems()).hasSize(ITEM_COUNT);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ITEM_COUNT + 1);
+        // Order INSERT, one batched item INSERT, one item sequence fetch — was 51 INSERTs with IDENTITY
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    private static CreateOrderRequest cart(int itemCount) {
+        List<OrderItemRequest> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(OrderItemRequest.builder().productId(1000L + i).quantity(1).build());
+        }
+        return CreateOrderRequest.builder().userId(1L).items(items).shippingAddress("123 Main St").build();
+    }
+
+    private static List<ProductAvailabilityResponse> availability(int itemCount) {
+        List<ProductAvailabilityResponse> responses = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            responses.add(ProductAvailabilityResponse.builder()
+                    .available(true)
+                    .productId(1000L + i)
+                    .productName("Product " + i)
+                    .productSku("SKU-" + i)
+                    .currentPrice(new BigDecimal("9.99"))
+                    .availableQuantity(100)
+                    .build());
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.service;
+
+import com.example.client.InventoryServiceClient;
+import com.example.config.OrderMetrics;
+import com.example.dto.CreateOrderRequest;
+import com.example.dto.OrderItemRequest;
+import com.example.dto.ProductAvailabilityResponse;
+import com.example.entities.OrderIntake;
+import com.example.enums.IntakeStatus;
+import com.example.kafka.OrderEventOutbox;
+import com.example.repository.OrderIntakeRepository;
+import com.example.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * An intake that recovery failed while its worker was still placing it stays FAILED,
+ * and the worker's order is rolled back instead of committed behind the client's back.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(OrderService.class)
+// The worker commits on its own thread, as it would in the service
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderIntakeServiceTest {
+
+    private static final String RECOVERY_REASON = "Interrupted during processing, please resubmit";
+
+    @MockitoBean
+    private UserExistenceCache userExistenceCache;
+    @MockitoBean
+    private InventoryServiceClient inventoryClient;
+    @MockitoBean
+    private OrderEventOutbox orderEventOutbox;
+    @MockitoBean
+    private OrderMetrics orderMetrics;
+    @MockitoBean
+    private OrderSummaryService orderSummaryService;
+    @MockitoBean
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderIntakeRepository intakeRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Test
+    void intakeFailedByRecoveryMidPlacementIsNotPlaced() throws Exception {
+        when(userExistenceCache.exists(anyLong())).thenReturn(true);
+        // The slow inventory call is where recovery catches up with the worker
+        when(inventoryClient.checkBulkAvailability(anyList())).thenAnswer(invocation -> {
+            OrderIntake processing = intakeRepository.findAll().stream()
+                    .filter(intake -> intake.getStatus() == IntakeStatus.PROCESSING)
+                    .findFirst().orElseThrow();
+            intakeRepository.updateStatus(processing.getIntakeId(), IntakeStatus.PROCESSING, IntakeStatus.FAILED,
+                    null, RECOVERY_REASON, LocalDateTime.now());
+            return List.of(availability());
+        });
+        long ordersBefore = orderRepository.count();
+
+        ThreadPoolExecutor worker = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1));
+        OrderIntakeService intakeService = new OrderIntakeService(orderService, intakeRepository,
+                new ObjectMapper(), worker, new SimpleMeterRegistry(), 5);
+
+        String intakeId = intakeService.accept(cart(), null).intake().getIntakeId();
+        worker.shutdown();
+        assertThat(worker.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        OrderIntake intake = intakeRepository.findById(intakeId).orElseThrow();
+        assertThat(intake.getStatus()).isEqualTo(IntakeStatus.FAILED);
+        assertThat(intake.getFailureReason()).isEqualTo(RECOVERY_REASON);
+        assertThat(intake.getOrderId()).isNull();
+        assertThat(orderRepository.count()).isEqualTo(ordersBefore);
+    }
+
+    private static CreateOrderRequest cart() {
+        return CreateOrderRequest.builder()
+                .userId(1L)
+                .items(List.of(OrderItemRequest.builder().productId(1000L).quantity(1).build()))
+                .shippingAddress("123 Main St")
+                .build();
+    }
+
+    private static ProductAvailabilityResponse availability() {
+        return ProductAvailabilityResponse.builder()
+                .available(true)
+                .productId(1000L)
+                .productName("Product")
+                .productSku("SKU-1000")
+                .currentPrice(new BigDecimal("9.99"))
+                .availableQuantity(100)
+                .build();
+    }
+}
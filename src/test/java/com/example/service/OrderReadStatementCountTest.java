@@ -0,0 +1,134 @@
+package com.example.service;
+
+import com.example.client.InventoryServiceClient;
+import com.example.config.OrderMetrics;
+import com.example.dto.CursorPage;
+import com.example.dto.OrderCursor;
+import com.example.dto.OrderResponse;
+import com.example.entities.Order;
+import com.example.entities.OrderItem;
+import com.example.kafka.OrderEventOutbox;
+import com.example.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Guards the fetch plan of the order listings: a page costs one query for the orders
+ * and one for all of their items, however many orders and lines it holds.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(OrderService.class)
+class OrderReadStatementCountTest {
+
+    private static final long USER_ID = 7L;
+    private static final int ORDERS = 30;
+    private static final int ITEMS_PER_ORDER = 4;
+
+    @MockitoBean
+    private UserExistenceCache userExistenceCache;
+    @MockitoBean
+    private InventoryServiceClient inventoryClient;
+    @MockitoBean
+    private OrderEventOutbox orderEventOutbox;
+    @MockitoBean
+    private OrderMetrics orderMetrics;
+    @MockitoBean
+    private OrderSummaryService orderSummaryService;
+    @MockitoBean
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        when(userExistenceCache.exists(anyLong())).thenReturn(true);
+
+        List<Order> orders = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            orders.add(order(i));
+        }
+        orderRepository.saveAll(orders);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void userOrdersPageTakesTwoStatements() {
+        CursorPage<OrderResponse> first = orderService.getOrdersByUserId(USER_ID, null, 20);
+
+        assertThat(first.getItems()).hasSize(20);
+        assertThat(first.getItems()).allSatisfy(order -> assertThat(order.getItems()).hasSize(ITEMS_PER_ORDER));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        statistics.clear();
+        CursorPage<OrderResponse> second =
+                orderService.getOrdersByUserId(USER_ID, OrderCursor.decode(first.getNextCursor()), 20);
+
+        assertThat(second.getItems()).hasSize(ORDERS - 20);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void allOrdersPageTakesTwoStatements() {
+        CursorPage<OrderResponse> page = orderService.getAllOrders(null, 25);
+
+        assertThat(page.getItems()).hasSize(25);
+        assertThat(page.getItems()).allSatisfy(order -> assertThat(order.getItems()).hasSize(ITEMS_PER_ORDER));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private static Order order(int n) {
+        Order order = Order.builder()
+                .userId(USER_ID)
+                .totalAmount(new BigDecimal("40.00"))
+                .shippingAddress("123 Main St")
+                .build();
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            order.getOrderItems().add(OrderItem.builder()
+                    .order(order)
+                    .productId(100L * n + i)
+                    .productName("Product " + i)
+                    .productSku("SKU-" + i)
+                    .quantity(1)
+                    .priceAtOrder(new BigDecimal("10.00"))
+                    .build());
+        }
+        return order;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.service;
+
+import com.example.entities.Order;
+import com.example.enums.OrderStatus;
+import com.example.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Conditional status UPDATEs: the first caller wins, a redelivered or concurrent one
+ * sees 0 rows instead of overwriting the new status.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class OrderStatusTransitionTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void transitionAppliesOnlyFromAllowedStatuses() {
+        Long orderId = pendingOrder();
+
+        assertThat(orderRepository.updateStatusIfIn(orderId, OrderStatus.CANCELLED.allowedFrom(),
+                OrderStatus.CANCELLED, LocalDateTime.now())).isEqualTo(1);
+        // Same event again, e.g. a Kafka redelivery
+        assertThat(orderRepository.updateStatusIfIn(orderId, EnumSet.of(OrderStatus.PENDING),
+                OrderStatus.COMPLETED, LocalDateTime.now())).isZero();
+
+        entityManager.clear();
+        Order order = orderRepository.findById(orderId).orElseThrow();
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(order.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void transitionTableMatchesTheLifecycle() {
+        assertThat(OrderStatus.CANCELLED.canTransitionFrom(OrderStatus.PAYMENT_PENDING)).isTrue();
+        assertThat(OrderStatus.CANCELLED.canTransitionFrom(OrderStatus.COMPLETED)).isFalse();
+        assertThat(OrderStatus.COMPLETED.canTransitionFrom(OrderStatus.CANCELLED)).isFalse();
+        assertThat(OrderStatus.PENDING.allowedFrom()).isEmpty();
+    }
+
+    private Long pendingOrder() {
+        Order order = orderRepository.save(Order.builder()
+                .userId(1L)
+                .totalAmount(new BigDecimal("9.99"))
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+        return order.getOrderId();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.service;
+
+import com.example.client.InventoryServiceClient;
+import com.example.config.OrderMetrics;
+import com.example.entities.Order;
+import com.example.enums.OrderStatus;
+import com.example.kafka.OrderEventOutbox;
+import com.example.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Transitions are counted when their transaction commits, not when the UPDATE runs.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(OrderService.class)
+// Each step commits or rolls back on its own
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderTransitionMetricsTest {
+
+    @MockitoBean
+    private UserExistenceCache userExistenceCache;
+    @MockitoBean
+    private InventoryServiceClient inventoryClient;
+    @MockitoBean
+    private OrderEventOutbox orderEventOutbox;
+    @MockitoBean
+    private OrderMetrics orderMetrics;
+    @MockitoBean
+    private OrderSummaryService orderSummaryService;
+    @MockitoBean
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void rolledBackTransitionIsNotCounted() {
+        Long orderId = pendingOrder();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            orderService.cancelOrder(orderId);
+            status.setRollbackOnly();
+        });
+        verify(orderMetrics, never()).recordTransition(OrderStatus.CANCELLED);
+
+        orderService.cancelOrder(orderId);
+        verify(orderMetrics).recordTransition(OrderStatus.CANCELLED);
+    }
+
+    private Long pendingOrder() {
+        return orderRepository.save(Order.builder()
+                .userId(1L)
+                .totalAmount(new BigDecimal("9.99"))
+                .build()).getOrderId();
+    }
+}